@@ -0,0 +1,60 @@
+package maze.bench;
+
+import maze.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of AnytimeAStar: time to its first (epsilon-bounded) path vs. running down to epsilon 1,
+ * with plain A* as the optimal baseline. For path quality over time see AnytimeProfile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnytimeBenchmark {
+
+    @Param({"1001", "4001"})
+    public int size;
+
+    @Param({"0.0167", "0.2"})
+    public double extraOpenings;
+
+    @Param({"1.5", "3", "5"})
+    public double epsilon;
+
+    private Maze maze;
+    private final SearchContext ctx = new SearchContext();
+
+    // stops the run as soon as the first path is published
+    private final SearchListener firstOnly = new SearchListener() {
+        @Override
+        public void onSolution(int[] path, double bound) {
+            ctx.cancel();
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        maze = new Maze(size, size);
+        maze.generate(1, extraOpenings);
+    }
+
+    @Benchmark
+    public SearchResult firstPath() {
+        return AnytimeAStar.search(maze, ctx.query(maze.start, maze.goal, firstOnly), epsilon, AnytimeAStar.DEFAULT_STEP);
+    }
+
+    @Benchmark
+    public SearchResult toOptimal() {
+        return AnytimeAStar.search(maze, ctx.query(maze.start, maze.goal, SearchListener.NONE), epsilon, AnytimeAStar.DEFAULT_STEP);
+    }
+
+    @Benchmark
+    public SearchResult astar() {
+        return AStar.search(maze, ctx.query(maze.start, maze.goal, SearchListener.NONE));
+    }
+}
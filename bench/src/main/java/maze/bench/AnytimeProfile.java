@@ -0,0 +1,59 @@
+package maze.bench;
+
+import maze.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quality over time for AnytimeAStar: prints one row per published path with the time since the
+ * search started, its length, the proven bound and the real ratio to the shortest path.
+ * Each configuration is run a few times first so the table shows JIT-compiled timings.
+ *
+ * java -cp bench/target/benchmarks.jar maze.bench.AnytimeProfile [size] [extraOpenings] [epsilon]
+ */
+public class AnytimeProfile {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2001;
+        double extra = args.length > 1 ? Double.parseDouble(args[1]) : 0.0167;
+        double epsilon = args.length > 2 ? Double.parseDouble(args[2]) : AnytimeAStar.DEFAULT_EPSILON;
+
+        Maze maze = new Maze(size, size);
+        maze.generate(1, extra);
+        SearchContext ctx = new SearchContext();
+        int shortest = AStar.search(maze, ctx.query(maze.start, maze.goal, SearchListener.NONE)).path.length - 1;
+
+        // warm up with the same listener class, so the measured run isn't deoptimized by a new one
+        Recorder rec = null;
+        for (int i = 0; i < 20; i++) {
+            rec = new Recorder();
+            AnytimeAStar.search(maze, ctx.query(maze.start, maze.goal, rec), epsilon, AnytimeAStar.DEFAULT_STEP);
+            rec.end = System.nanoTime();
+        }
+
+        System.out.printf("size=%d extraOpenings=%s epsilon=%s shortest=%d%n", size, extra, epsilon, shortest);
+        System.out.printf("%10s %8s %8s %8s%n", "ms", "length", "bound", "ratio");
+        for (int i = 0; i < rec.lengths.size(); i++) {
+            int length = rec.lengths.get(i);
+            System.out.printf("%10.3f %8d %8.3f %8.3f%n", (rec.times.get(i) - rec.t0) / 1e6,
+                    length, rec.bounds.get(i), (double) length / shortest);
+        }
+        System.out.printf("%10.3f done%n", (rec.end - rec.t0) / 1e6);
+    }
+
+    private static class Recorder implements SearchListener {
+        final long t0 = System.nanoTime();
+        long end;
+        final List<Long> times = new ArrayList<>();
+        final List<Integer> lengths = new ArrayList<>();
+        final List<Double> bounds = new ArrayList<>();
+
+        @Override
+        public void onSolution(int[] path, double bound) {
+            times.add(System.nanoTime());
+            lengths.add(path.length - 1);
+            bounds.add(bound);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package maze.bench;
+
+import maze.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of BatchSolver with worker count: one op = solving the whole job list.
+ * Compare the threads=1 score with higher counts to get the speedup curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    @Param({"201"})
+    public int size;
+
+    @Param({"256"})
+    public int jobCount;
+
+    private List<BatchSolver.Job> jobs;
+    private BatchSolver solver;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jobs = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            Maze maze = new Maze(size, size);
+            maze.generate(i, AnimatedMazeGenerator.DEFAULT_EXTRA_OPENINGS);
+            jobs.add(new BatchSolver.Job(maze, maze.start, maze.goal, SearchType.BFS));
+        }
+        solver = new BatchSolver(threads, threads * 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        solver.close();
+    }
+
+    @Benchmark
+    public int solveAll() throws InterruptedException {
+        BatchSolver.Batch batch = solver.start(jobs.iterator());
+        int found = 0;
+        for (BatchSolver.Outcome o; (o = batch.next()) != null; ) {
+            if (o.result != null && o.result.found()) found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,23 @@
+package maze.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the normal JMH command line,
+ * and always attaches the GC profiler so every result carries gc.alloc.rate.norm.
+ */
+public class BenchMain {
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,58 @@
+package maze.bench;
+
+import maze.AnimatedMazeGenerator;
+import maze.FastMazeGenerator;
+import maze.ParallelMazeGenerator;
+import maze.Maze;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AnimatedMazeGenerator.generate without an event log, i.e. the bare carving loop.
+ * The Maze is allocated once per trial; each invocation regenerates it in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"101", "501", "1001", "4001"})
+    public int size;
+
+    @Param({"0", "0.0167", "0.05"})
+    public double extraOpenings;
+
+    @Param({"1", "42"})
+    public long seed;
+
+    private Maze maze;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        maze = new Maze(size, size);
+    }
+
+    @Benchmark
+    public Maze generate() {
+        AnimatedMazeGenerator.generate(maze, new Random(seed), extraOpenings);
+        return maze;
+    }
+
+    @Benchmark
+    public Maze generateFast() {
+        FastMazeGenerator.generate(maze, seed, extraOpenings);
+        return maze;
+    }
+
+    // common pool; scale with -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N
+    @Benchmark
+    public Maze generateParallel() {
+        ParallelMazeGenerator.generate(maze, seed, extraOpenings);
+        return maze;
+    }
+}
@@ -0,0 +1,30 @@
+package maze.bench;
+
+import maze.Maze;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * One generated maze per (size, extraOpenings, seed) combination, built once per trial
+ * so solver benchmarks measure solving only.
+ */
+@State(Scope.Benchmark)
+public class MazeState {
+
+    @Param({"101", "501", "1001", "4001"})
+    public int size;
+
+    // fraction of cells knocked open after carving; 1/60 is the app default
+    @Param({"0", "0.0167", "0.05", "0.2"})
+    public double extraOpenings;
+
+    @Param({"1", "42"})
+    public long seed;
+
+    public Maze maze;
+
+    @Setup(Level.Trial)
+    public void build() {
+        maze = new Maze(size, size);
+        maze.generate(seed, extraOpenings);
+    }
+}
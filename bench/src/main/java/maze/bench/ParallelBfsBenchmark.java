@@ -0,0 +1,57 @@
+package maze.bench;
+
+import maze.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread scaling of ParallelBFS against plain BFS on large mazes.
+ * Run with -p threads=1,2,4,... and divide the bfs score by each parallelBfs score for the speedup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelBfsBenchmark {
+
+    @Param({"2001", "4001"})
+    public int size;
+
+    // loops make the frontier wide enough for the parallel levels to matter
+    @Param({"0.0167", "0.2"})
+    public double extraOpenings;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    private Maze maze;
+    private ForkJoinPool pool;
+    private final SearchContext ctx = new SearchContext();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        maze = new Maze(size, size);
+        maze.generate(1, extraOpenings);
+        pool = new ForkJoinPool(threads);
+        ctx.query(maze.start, maze.goal, SearchListener.NONE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SearchResult bfs() {
+        return BFS.search(maze, ctx);
+    }
+
+    @Benchmark
+    public SearchResult parallelBfs() {
+        return ParallelBFS.search(maze, ctx, pool);
+    }
+}
@@ -0,0 +1,81 @@
+package maze.bench;
+
+import maze.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless solver runs (SearchListener.NONE) on a pre-generated maze.
+ * Each benchmark thread reuses one SearchContext, the way a service would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    private final SearchContext ctx = new SearchContext();
+    private final PathCache cache = new PathCache(BFS::search, 64);
+
+    @Setup(Level.Trial)
+    public void setup(MazeState s) {
+        ctx.query(s.maze.start, s.maze.goal, SearchListener.NONE);
+        JunctionGraph.of(s.maze);   // preprocess outside the measurement
+    }
+
+    @Benchmark
+    public SearchResult bfs(MazeState s) {
+        return BFS.search(s.maze, ctx);
+    }
+
+    // repeat query served from the path cache: fingerprint check + path decode
+    @Benchmark
+    public SearchResult bfsCached(MazeState s) {
+        return cache.solve(s.maze, ctx);
+    }
+
+    @Benchmark
+    public SearchResult bidirectionalBfs(MazeState s) {
+        return BidirectionalBFS.search(s.maze, ctx);
+    }
+
+    @Benchmark
+    public SearchResult dfs(MazeState s) {
+        return DFS.search(s.maze, ctx);
+    }
+
+    @Benchmark
+    public SearchResult astar(MazeState s) {
+        return AStar.search(s.maze, ctx);
+    }
+
+    // compare against astar across extraOpenings: the more open pockets, the more JPS skips
+    @Benchmark
+    public SearchResult jps(MazeState s) {
+        return JumpPointSearch.search(s.maze, ctx);
+    }
+
+    @Benchmark
+    public SearchResult junctionGraph(MazeState s) {
+        return JunctionGraph.search(s.maze, ctx);
+    }
+
+    @Benchmark
+    public SearchResult greedyHeatmap(MazeState s) {
+        return GreedyBFSFallback.run(s.maze, ctx);
+    }
+
+    // no precomputed field: the walk leans on rescues instead
+    @Benchmark
+    public SearchResult greedyManhattan(MazeState s) {
+        return GreedyBFSFallback.run(s.maze, ctx, GreedyBFSFallback.Heatmap.MANHATTAN);
+    }
+
+    @Benchmark
+    public SearchResult optimistic(MazeState s) {
+        return Optimistic.search(s.maze, ctx);
+    }
+}
@@ -0,0 +1,82 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** ARA* must end on a shortest path, and every bound it publishes must hold. */
+class AnytimeAStarTest {
+
+    @Test
+    void endsOnAShortestPathAndBoundsHold() {
+        int solutions = 0;
+        for (long seed = 1; seed <= 10; seed++) {
+            Maze maze = new Maze(61, 61);
+            maze.generateFast(seed, seed % 2 == 0 ? 0 : 0.2);
+            SplittableRandom rng = new SplittableRandom(seed);
+            for (int q = 0; q < 10; q++) {
+                int start = SolverEquivalenceTest.randomOpenCell(maze, rng);
+                int goal = SolverEquivalenceTest.randomOpenCell(maze, rng);
+                SearchResult bfs = BFS.search(maze, new SearchContext(start, goal, SearchListener.NONE));
+                Recorder rec = new Recorder();
+                SearchResult r = AnytimeAStar.search(maze, new SearchContext(start, goal, rec));
+                assertEquals(bfs.found(), r.found());
+                if (!bfs.found()) continue;
+
+                assertEquals(SearchResult.Status.FOUND, r.status);
+                assertEquals(bfs.path.length, r.path.length);
+                DStarLiteTest.assertValidPath(maze, start, goal, r.path);
+                int shortest = bfs.path.length - 1;
+                for (int i = 0; i < rec.paths.size(); i++) {
+                    int[] p = rec.paths.get(i);
+                    DStarLiteTest.assertValidPath(maze, start, goal, p);
+                    double ratio = shortest == 0 ? 1 : (double) (p.length - 1) / shortest;
+                    assertTrue(rec.bounds.get(i) >= ratio - 1e-9,
+                            "bound " + rec.bounds.get(i) + " below real ratio " + ratio);
+                    solutions++;
+                }
+                assertEquals(r.path.length, rec.onPath);
+            }
+        }
+        assertTrue(solutions > 100);
+    }
+
+    @Test
+    void stoppedRunReturnsItsBestPathAsStopped() {
+        Maze maze = new Maze(201, 201);
+        maze.generateFast(5, 0.3);
+        SearchResult full = AnytimeAStar.search(maze, new SearchContext(maze.start, maze.goal, SearchListener.NONE));
+        boolean sawPartial = false;
+        for (int limit = 64; limit < full.expanded; limit += 64) {
+            Recorder rec = new Recorder();
+            SearchResult r = AnytimeAStar.search(maze,
+                    new SearchContext(maze.start, maze.goal, rec).maxExpanded(limit));
+            if (!r.found()) continue;
+            if (r.complete()) break;
+            assertEquals(SearchResult.Status.BUDGET_EXHAUSTED, r.status);
+            assertArrayEquals(rec.paths.get(rec.paths.size() - 1), r.path);
+            assertEquals(r.path.length, rec.onPath, "stopped path not reported through onPath");
+            sawPartial = true;
+        }
+        assertTrue(sawPartial, "no limit stopped the run between its first and final path");
+    }
+
+    private static final class Recorder implements SearchListener {
+        final List<int[]> paths = new ArrayList<>();
+        final List<Double> bounds = new ArrayList<>();
+        int onPath;
+
+        @Override
+        public void onPath(int cell) { onPath++; }
+
+        @Override
+        public void onSolution(int[] path, double bound) {
+            paths.add(path);
+            bounds.add(bound);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+
+    private static final Duration HANG = Duration.ofSeconds(30);
+
+    @Test
+    void streamsResultsInCompletionOrder() throws InterruptedException {
+        Maze big = new Maze(1001, 1001), small = new Maze(21, 21);
+        big.generateFast(1, 0);
+        small.generateFast(1, 0);
+        List<BatchSolver.Job> jobs = new ArrayList<>();
+        jobs.add(new BatchSolver.Job(big, big.start, big.goal, SearchType.BFS));
+        for (int i = 0; i < 20; i++) jobs.add(new BatchSolver.Job(small, small.start, small.goal, SearchType.BFS));
+
+        List<BatchSolver.Outcome> outcomes = new ArrayList<>();
+        try (BatchSolver solver = new BatchSolver(2, 64)) {
+            BatchSolver.Batch batch = solver.start(jobs.iterator());
+            for (BatchSolver.Outcome o; (o = batch.next()) != null; ) outcomes.add(o);
+        }
+        assertEquals(jobs.size(), outcomes.size());
+        for (BatchSolver.Outcome o : outcomes) {
+            assertNull(o.error);
+            assertTrue(o.result.found());
+        }
+        assertNotSame(jobs.get(0), outcomes.get(0).job, "the slow first job should not come back first");
+        assertTrue(outcomes.stream().map(o -> o.job).distinct().count() == jobs.size());
+    }
+
+    @Test
+    void feederWaitsForTheConsumer() throws InterruptedException {
+        Maze maze = new Maze(21, 21);
+        maze.generateFast(2, 0);
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<BatchSolver.Job> jobs = counted(maze, 100, pulled);
+        try (BatchSolver solver = new BatchSolver(4, 4)) {
+            BatchSolver.Batch batch = solver.start(jobs);
+            Thread.sleep(200);
+            // maxInFlight permits, plus the job the feeder holds while waiting for one
+            assertTrue(pulled.get() <= 5, "feeder ran ahead: " + pulled.get());
+            int n = 0;
+            while (batch.next() != null) n++;
+            assertEquals(100, n);
+        }
+    }
+
+    @Test
+    void cancelEndsAnEndlessBatch() {
+        Maze maze = new Maze(21, 21);
+        maze.generateFast(3, 0);
+        assertTimeoutPreemptively(HANG, () -> {
+            try (BatchSolver solver = new BatchSolver(2, 8)) {
+                BatchSolver.Batch batch = solver.start(counted(maze, Integer.MAX_VALUE, new AtomicInteger()));
+                for (int i = 0; i < 10; i++) assertNotNull(batch.next());
+                batch.cancel();
+                assertTrue(batch.isCancelled());
+                while (batch.next() != null) { }
+                assertNull(batch.feedError());
+            }
+        });
+    }
+
+    @Test
+    void iteratorFailureEndsTheBatchWithWhatWasSubmitted() throws InterruptedException {
+        Maze maze = new Maze(21, 21);
+        maze.generateFast(4, 0);
+        Iterator<BatchSolver.Job> inner = counted(maze, 5, new AtomicInteger());
+        RuntimeException boom = new IllegalStateException("boom");
+        Iterator<BatchSolver.Job> jobs = new Iterator<BatchSolver.Job>() {
+            public boolean hasNext() { return true; }
+            public BatchSolver.Job next() {
+                if (!inner.hasNext()) throw boom;
+                return inner.next();
+            }
+        };
+        try (BatchSolver solver = new BatchSolver(2, 8)) {
+            BatchSolver.Batch batch = solver.start(jobs);
+            int n = 0;
+            while (batch.next() != null) n++;
+            assertEquals(5, n);
+            assertSame(boom, batch.feedError());
+        }
+    }
+
+    @Test
+    void throwingJobComesBackAsAnError() throws InterruptedException {
+        Maze maze = new Maze(21, 21);
+        maze.generateFast(5, 0);
+        List<BatchSolver.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            jobs.add(new BatchSolver.Job(maze, maze.start, maze.goal, SearchType.BFS));
+            jobs.add(new BatchSolver.Job(null, 0, 0, SearchType.BFS));
+        }
+        int ok = 0, failed = 0;
+        try (BatchSolver solver = new BatchSolver(2, 4)) {
+            BatchSolver.Batch batch = solver.start(jobs.iterator());
+            for (BatchSolver.Outcome o; (o = batch.next()) != null; ) {
+                if (o.error != null) {
+                    assertNull(o.job.maze);
+                    assertNull(o.result);
+                    failed++;
+                } else {
+                    assertTrue(o.result.found());
+                    ok++;
+                }
+            }
+        }
+        assertEquals(10, ok);
+        assertEquals(10, failed);
+    }
+
+    @Test
+    void closeWhileRunningStillEndsTheBatch() {
+        Maze maze = new Maze(1001, 1001);
+        maze.generateFast(6, 0);
+        assertTimeoutPreemptively(HANG, () -> {
+            BatchSolver solver = new BatchSolver(1, 32);
+            // one worker, so most jobs are still queued when the pool closes
+            BatchSolver.Batch batch = solver.start(counted(maze, 32, new AtomicInteger()));
+            Thread.sleep(50);
+            solver.close();
+            assertTrue(batch.isCancelled());
+            int n = 0;
+            while (batch.next() != null) n++;
+            assertTrue(n < 32, "close should drop queued jobs: " + n);
+        });
+    }
+
+    private static Iterator<BatchSolver.Job> counted(Maze maze, int count, AtomicInteger pulled) {
+        return new Iterator<BatchSolver.Job>() {
+            public boolean hasNext() { return pulled.get() < count; }
+            public BatchSolver.Job next() {
+                pulled.incrementAndGet();
+                return new BatchSolver.Job(maze, maze.start, maze.goal, SearchType.BFS);
+            }
+        };
+    }
+}
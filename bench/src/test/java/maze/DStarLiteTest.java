@@ -0,0 +1,90 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** D* Lite replans must always match a from-scratch BFS on the edited maze. */
+class DStarLiteTest {
+
+    @Test
+    void replansMatchBfsUnderWallFlipsAndMoves() {
+        int plans = 0;
+        for (long seed = 1; seed <= 20; seed++) {
+            Maze maze = new Maze(41, 41);
+            maze.generateFast(seed, 0.1);
+            SplittableRandom rng = new SplittableRandom(seed);
+            DStarLite d = new DStarLite(maze, maze.start, maze.goal);
+
+            for (int step = 0; step < 200 && d.start() != maze.goal; step++) {
+                SearchResult r = d.plan();
+                assertMatchesBfs(maze, d.start(), maze.goal, r);
+                plans++;
+
+                if (r.found() && r.path.length > 1) d.moveTo(r.path[1]);
+                // flip a few interior cells, never the walker or the goal
+                for (int k = 0; k < 3; k++) {
+                    int cell = maze.id(1 + rng.nextInt(maze.rows - 2), 1 + rng.nextInt(maze.cols - 2));
+                    if (cell == d.start() || cell == maze.goal) continue;
+                    d.setWall(cell, !maze.isWall(cell));
+                }
+            }
+        }
+        assertTrue(plans > 1000, "too few plans exercised: " + plans);
+    }
+
+    @Test
+    void blockedThenReopened() {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(7, 0);   // perfect maze: every path cell is a cut vertex
+        DStarLite d = new DStarLite(maze, maze.start, maze.goal);
+        SearchResult first = d.plan();
+        assertTrue(first.found());
+
+        int cut = first.path[first.path.length / 2];
+        d.setWall(cut, true);
+        SearchResult blocked = d.plan();
+        assertEquals(SearchResult.Status.NOT_FOUND, blocked.status);
+
+        d.setWall(cut, false);
+        assertMatchesBfs(maze, maze.start, maze.goal, d.plan());
+    }
+
+    @Test
+    void budgetStoppedPlanResumes() {
+        Maze maze = new Maze(101, 101);
+        maze.generateFast(3, 0.05);
+        DStarLite d = new DStarLite(maze, maze.start, maze.goal)
+                .context(new SearchContext().maxExpanded(50));
+        SearchResult r;
+        int rounds = 0;
+        while (!(r = d.plan()).complete()) {
+            assertEquals(SearchResult.Status.BUDGET_EXHAUSTED, r.status);
+            assertTrue(++rounds < 100_000);
+        }
+        assertTrue(rounds > 0, "budget never hit");
+        assertMatchesBfs(maze, maze.start, maze.goal, r);
+    }
+
+    static void assertMatchesBfs(Maze maze, int start, int goal, SearchResult r) {
+        SearchResult bfs = BFS.search(maze, new SearchContext(start, goal, SearchListener.NONE));
+        assertEquals(bfs.found(), r.found(), "reachability from " + start);
+        if (!bfs.found()) return;
+        assertEquals(bfs.path.length, r.path.length, "path length from " + start);
+        assertValidPath(maze, start, goal, r.path);
+    }
+
+    static void assertValidPath(Maze maze, int start, int goal, int[] path) {
+        assertEquals(start, path[0]);
+        assertEquals(goal, path[path.length - 1]);
+        for (int i = 0; i < path.length; i++) {
+            assertFalse(maze.isWall(path[i]), "path crosses a wall at " + path[i]);
+            if (i == 0) continue;
+            int a = path[i - 1], b = path[i];
+            int dist = Math.abs(maze.row(a) - maze.row(b)) + Math.abs(maze.col(a) - maze.col(b));
+            assertEquals(1, dist, "path jumps from " + a + " to " + b);
+        }
+    }
+}
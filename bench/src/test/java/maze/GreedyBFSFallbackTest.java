@@ -0,0 +1,100 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GreedyBFSFallbackTest {
+
+    @Test
+    void exactHeatmapWalksShortestPathsWithoutRescues() {
+        SearchContext ctx = new SearchContext();
+        for (long seed = 1; seed <= 10; seed++) {
+            Maze maze = new Maze(61, 61);
+            maze.generateFast(seed, 0.05);
+            SplittableRandom rng = new SplittableRandom(seed);
+            for (int q = 0; q < 20; q++) {
+                int start = SolverEquivalenceTest.randomOpenCell(maze, rng);
+                int goal = SolverEquivalenceTest.randomOpenCell(maze, rng);
+                SearchResult bfs = BFS.search(maze, ctx.query(start, goal, SearchListener.NONE));
+                SearchResult r = GreedyBFSFallback.run(maze, ctx.query(start, goal, SearchListener.NONE));
+                assertEquals(bfs.found(), r.found());
+                if (bfs.found()) assertEquals(bfs.path.length, r.path.length);
+                assertEquals(0, ctx.rescues);
+            }
+        }
+    }
+
+    @Test
+    void manhattanHeatmapRescuesOutOfDeadEnds() {
+        SearchContext ctx = new SearchContext();
+        int rescues = 0;
+        for (long seed = 1; seed <= 10; seed++) {
+            Maze maze = new Maze(61, 61);
+            maze.generateFast(seed, seed % 2 == 0 ? 0 : 0.1);
+            int open = maze.openCells();
+            SplittableRandom rng = new SplittableRandom(seed);
+            for (int q = 0; q < 20; q++) {
+                int start = SolverEquivalenceTest.randomOpenCell(maze, rng);
+                int goal = SolverEquivalenceTest.randomOpenCell(maze, rng);
+                SearchResult bfs = BFS.search(maze, ctx.query(start, goal, SearchListener.NONE));
+                SearchResult r = GreedyBFSFallback.run(maze, ctx.query(start, goal, SearchListener.NONE),
+                        GreedyBFSFallback.Heatmap.MANHATTAN);
+                // complete, though not shortest
+                assertEquals(bfs.found(), r.found(), "seed " + seed + ", " + start + "->" + goal);
+                if (r.found()) {
+                    DStarLiteTest.assertValidPath(maze, start, goal, r.path);
+                    assertTrue(r.path.length >= bfs.path.length);
+                }
+                // every open cell is expanded by at most one rescue
+                assertTrue(ctx.rescueExpanded <= open);
+                assertTrue(ctx.maxRescue <= ctx.rescueExpanded);
+                rescues += ctx.rescues;
+            }
+        }
+        assertTrue(rescues > 100, "rescue path barely exercised: " + rescues);
+    }
+
+    @Test
+    void manhattanHeatmapReportsUnreachableGoal() {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(4, 0);
+        int goal = maze.goal;
+        for (int d = 0; d < 4; d++) {
+            int nb = maze.neighbor(goal, d);
+            if (nb >= 0) maze.setWall(nb, true);
+        }
+        SearchResult r = GreedyBFSFallback.run(maze, new SearchContext(maze.start, goal, SearchListener.NONE),
+                GreedyBFSFallback.Heatmap.MANHATTAN);
+        assertEquals(SearchResult.Status.NOT_FOUND, r.status);
+    }
+
+    @Test
+    void boundedRescuesAreCutOffButTheWalkGoesOn() {
+        Maze maze = new Maze(101, 101);
+        maze.generateFast(9, 0);
+        SearchContext ctx = new SearchContext(maze.start, maze.goal, SearchListener.NONE);
+        SearchResult r = GreedyBFSFallback.run(maze, ctx, GreedyBFSFallback.Heatmap.MANHATTAN, 1, Long.MAX_VALUE);
+        assertTrue(r.found());
+        DStarLiteTest.assertValidPath(maze, maze.start, maze.goal, r.path);
+        assertTrue(ctx.rescues > 1);
+        assertEquals(1, ctx.maxRescue);
+
+        // time-bounded rescues check the clock every 256 expansions
+        r = GreedyBFSFallback.run(maze, ctx, GreedyBFSFallback.Heatmap.MANHATTAN, Integer.MAX_VALUE, 1);
+        assertTrue(r.found());
+        DStarLiteTest.assertValidPath(maze, maze.start, maze.goal, r.path);
+        assertTrue(ctx.maxRescue <= 256, "rescue overran its deadline: " + ctx.maxRescue);
+    }
+
+    @Test
+    void runLimitStillStopsTheRun() {
+        Maze maze = new Maze(101, 101);
+        maze.generateFast(9, 0);
+        SearchContext ctx = new SearchContext(maze.start, maze.goal, SearchListener.NONE).maxExpanded(50);
+        SearchResult r = GreedyBFSFallback.run(maze, ctx, GreedyBFSFallback.Heatmap.MANHATTAN, 1, Long.MAX_VALUE);
+        assertEquals(SearchResult.Status.BUDGET_EXHAUSTED, r.status);
+    }
+}
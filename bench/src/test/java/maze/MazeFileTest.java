@@ -0,0 +1,96 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MazeFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveThenOpenRoundTrips() throws IOException {
+        Maze maze = new Maze(61, 83);
+        maze.generateFast(7, 0.1);
+        Path file = dir.resolve("m.maze");
+        MazeFile.save(maze, file);
+
+        Maze loaded = MazeFile.open(file);
+        assertEquals(maze.rows, loaded.rows);
+        assertEquals(maze.cols, loaded.cols);
+        assertEquals(maze.fingerprint(), loaded.fingerprint());
+        assertEquals(maze.start, loaded.start);
+        assertEquals(maze.goal, loaded.goal);
+        assertEquals(maze.seed, loaded.seed);
+        assertArrayEquals(MazeGeneratorTest.walls(maze), MazeGeneratorTest.walls(loaded));
+    }
+
+    @Test
+    void rowWriterMatchesTheInMemoryEllerMaze() throws IOException {
+        Maze maze = new Maze(45, 131);
+        EllerMazeGenerator.generate(maze, 3, 0.05);
+        Path file = dir.resolve("eller.maze");
+        try (MazeFile.RowWriter w = new MazeFile.RowWriter(file, maze.cols, 3)) {
+            EllerMazeGenerator.generate(maze.rows, maze.cols, 3, 0.05, w);
+        }
+
+        Maze loaded = MazeFile.open(file);
+        assertEquals(maze.rows, loaded.rows);
+        assertEquals(maze.cols, loaded.cols);
+        assertEquals(3, loaded.seed);
+        // placeEndpoints only opens cells the generator already opened
+        assertEquals(maze.fingerprint(), loaded.fingerprint());
+        assertEquals(loaded.id(1, 1), loaded.start);
+        assertEquals(loaded.id(loaded.rows - 2, loaded.cols - 2), loaded.goal);
+        assertTrue(BFS.search(loaded, new SearchContext(loaded.start, loaded.goal, SearchListener.NONE)).found());
+    }
+
+    @Test
+    void rejectsBrokenFiles() throws IOException {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(1, 0);
+        Path good = dir.resolve("good.maze");
+        MazeFile.save(maze, good);
+        byte[] bytes = Files.readAllBytes(good);
+
+        Path shortHeader = dir.resolve("short.maze");
+        Files.write(shortHeader, new byte[MazeFile.HEADER_BYTES - 1]);
+        assertThrows(IOException.class, () -> MazeFile.open(shortHeader));
+
+        Path truncated = dir.resolve("truncated.maze");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> MazeFile.open(truncated));
+
+        Path badMagic = copyWith(bytes, "magic.maze", 0, 0x12345678);
+        assertThrows(IOException.class, () -> MazeFile.open(badMagic));
+
+        Path badStart = copyWith(bytes, "start.maze", 16, -1);
+        assertThrows(IOException.class, () -> MazeFile.open(badStart));
+
+        Path badGoal = copyWith(bytes, "goal.maze", 20, maze.size());
+        assertThrows(IOException.class, () -> MazeFile.open(badGoal));
+    }
+
+    // copy of a saved file with one header int overwritten
+    private Path copyWith(byte[] bytes, String name, int offset, int value) throws IOException {
+        Path p = dir.resolve(name);
+        Files.write(p, bytes);
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+            b.flip();
+            ch.write(b, offset);
+        }
+        return p;
+    }
+}
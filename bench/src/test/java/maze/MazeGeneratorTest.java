@@ -0,0 +1,124 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Generators with no extra openings must produce perfect mazes: open cells form one spanning tree. */
+class MazeGeneratorTest {
+
+    @Test
+    void fastMazeIsPerfect() {
+        for (long seed = 1; seed <= 10; seed++) {
+            Maze maze = new Maze(61, 83);
+            maze.generateFast(seed, 0);
+            assertPerfect(maze, "fast seed " + seed);
+        }
+    }
+
+    @Test
+    void fastMazeDependsOnlyOnSeed() {
+        Maze a = new Maze(101, 101), b = new Maze(101, 101);
+        a.generateFast(42, 0.05);
+        b.generateFast(7, 0.05);   // reuse b so leftovers from another seed would show
+        b.generateFast(42, 0.05);
+        assertEquals(a.fingerprint(), b.fingerprint());
+        assertSameWalls(a, b, "fast, same seed");
+        assertEquals(a.start, b.start);
+        assertEquals(a.goal, b.goal);
+
+        Maze c = new Maze(101, 101);
+        c.generateFast(43, 0.05);
+        assertNotEquals(a.fingerprint(), c.fingerprint());
+    }
+
+    @Test
+    void ellerMazeIsPerfect() {
+        for (long seed = 1; seed <= 10; seed++) {
+            Maze maze = new Maze(61, 83);
+            EllerMazeGenerator.generate(maze, seed, 0);
+            assertPerfect(maze, "eller seed " + seed);
+        }
+    }
+
+    @Test
+    void ellerIsDeterministicAndStreamsTheSameRows() throws IOException {
+        Maze a = new Maze(41, 41), b = new Maze(41, 41);
+        EllerMazeGenerator.generate(a, 5, 0.1);
+        EllerMazeGenerator.generate(b.rows, b.cols, 5, 0.1, MazeRowSink.into(b));
+        assertArrayEquals(walls(a), walls(b));
+    }
+
+    @Test
+    void parallelMazeIsPerfectAcrossTiles() {
+        // several tiles in each direction, with ragged last tiles
+        int side = 2 * (2 * ParallelMazeGenerator.TILE + 37) + 1;
+        for (long seed = 1; seed <= 3; seed++) {
+            Maze maze = new Maze(side, side + 2 * 51);
+            ParallelMazeGenerator.generate(maze, seed, 0);
+            assertPerfect(maze, "parallel seed " + seed);
+        }
+    }
+
+    @Test
+    void parallelMazeDependsOnlyOnSeed() {
+        int side = 2 * (3 * ParallelMazeGenerator.TILE) + 1;
+        Maze one = new Maze(side, side), many = new Maze(side, side);
+        ForkJoinPool single = new ForkJoinPool(1), wide = new ForkJoinPool(8);
+        try {
+            ParallelMazeGenerator.generate(one, 11, 0.02, single);
+            ParallelMazeGenerator.generate(many, 11, 0.02, wide);
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+        assertSameWalls(one, many, "same seed, different thread counts");
+        assertEquals(one.start, many.start);
+        assertEquals(one.goal, many.goal);
+    }
+
+    // open cells are connected and have exactly one fewer adjacencies than cells
+    static void assertPerfect(Maze maze, String what) {
+        int open = 0, edges = 0, first = -1;
+        for (int id = 0; id < maze.size(); id++) {
+            if (maze.isWall(id)) continue;
+            open++;
+            if (first < 0) first = id;
+            if (maze.col(id) + 1 < maze.cols && !maze.isWall(id + 1)) edges++;
+            if (maze.row(id) + 1 < maze.rows && !maze.isWall(id + maze.cols)) edges++;
+        }
+        assertTrue(open > 0, what + ": no open cells");
+        assertEquals(open - 1, edges, what + ": open cells don't form a tree");
+
+        boolean[] seen = new boolean[maze.size()];
+        int[] queue = new int[open];
+        int head = 0, tail = 0;
+        queue[tail++] = first;
+        seen[first] = true;
+        while (head < tail) {
+            int cur = queue[head++];
+            for (int d = 0; d < 4; d++) {
+                int nxt = maze.neighbor(cur, d);
+                if (nxt >= 0 && !seen[nxt] && !maze.isWall(nxt)) {
+                    seen[nxt] = true;
+                    queue[tail++] = nxt;
+                }
+            }
+        }
+        assertEquals(open, tail, what + ": open cells not connected");
+    }
+
+    static boolean[] walls(Maze maze) {
+        boolean[] w = new boolean[maze.size()];
+        for (int id = 0; id < w.length; id++) w[id] = maze.isWall(id);
+        return w;
+    }
+
+    static void assertSameWalls(Maze a, Maze b, String what) {
+        assertTrue(Arrays.equals(walls(a), walls(b)), what);
+    }
+}
@@ -0,0 +1,100 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathCacheTest {
+
+    @Test
+    void hitReturnsTheSamePathAsTheMiss() {
+        Maze maze = new Maze(41, 41);
+        maze.generateFast(1, 0.1);
+        AtomicInteger calls = new AtomicInteger();
+        PathCache cache = new PathCache(counting(BFS::search, calls), 64);
+        SplittableRandom rng = new SplittableRandom(1);
+        for (int q = 0; q < 20; q++) {
+            int start = SolverEquivalenceTest.randomOpenCell(maze, rng);
+            int goal = SolverEquivalenceTest.randomOpenCell(maze, rng);
+            SearchResult miss = cache.solve(maze, new SearchContext(start, goal, SearchListener.NONE));
+            SearchResult hit = cache.solve(maze, new SearchContext(start, goal, SearchListener.NONE));
+            assertArrayEquals(miss.path, hit.path);
+        }
+        assertEquals(20, calls.get());
+        assertEquals(20, cache.hits());
+        assertEquals(20, cache.misses());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAtMaxEntries() {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(2, 0);
+        AtomicInteger calls = new AtomicInteger();
+        PathCache cache = new PathCache(counting(BFS::search, calls), 2);
+        int a = maze.start, b = maze.goal;
+        cache.solve(maze, new SearchContext(a, b, SearchListener.NONE));
+        cache.solve(maze, new SearchContext(b, a, SearchListener.NONE));
+        cache.solve(maze, new SearchContext(a, b, SearchListener.NONE));   // a->b is now the most recent
+        cache.solve(maze, new SearchContext(a, a, SearchListener.NONE));   // evicts b->a
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertEquals(3, calls.get());
+
+        cache.solve(maze, new SearchContext(a, b, SearchListener.NONE));
+        assertEquals(3, calls.get(), "a->b should still be cached");
+        cache.solve(maze, new SearchContext(b, a, SearchListener.NONE));
+        assertEquals(4, calls.get(), "b->a should have been evicted");
+    }
+
+    @Test
+    void wallEditChangesTheKey() {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(3, 0);
+        AtomicInteger calls = new AtomicInteger();
+        PathCache cache = new PathCache(counting(BFS::search, calls), 16);
+        SearchResult before = cache.solve(maze, new SearchContext(maze.start, maze.goal, SearchListener.NONE));
+        assertTrue(before.found());
+
+        long fingerprint = maze.fingerprint();
+        maze.setWall(before.path[before.path.length / 2], true);   // cuts the only path of a perfect maze
+        assertNotEquals(fingerprint, maze.fingerprint());
+        SearchResult after = cache.solve(maze, new SearchContext(maze.start, maze.goal, SearchListener.NONE));
+        assertEquals(2, calls.get());
+        assertFalse(after.found());
+    }
+
+    @Test
+    void cachesPathsWithNonAdjacentSteps() {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(4, 0.2);
+        int start = maze.id(1, 1), diagonal = maze.id(2, 2);
+        int[] path = {start, diagonal};
+        AtomicInteger calls = new AtomicInteger();
+        PathCache cache = new PathCache(counting((m, c) -> new SearchResult(path.clone(), 1), calls), 16);
+        SearchResult miss = cache.solve(maze, new SearchContext(start, diagonal, SearchListener.NONE));
+        SearchResult hit = cache.solve(maze, new SearchContext(start, diagonal, SearchListener.NONE));
+        assertArrayEquals(path, miss.path);
+        assertArrayEquals(path, hit.path);
+        assertEquals(1, calls.get());
+
+        // the greedy walker takes diagonal steps
+        PathCache optimistic = new PathCache(Optimistic::search, 256);
+        SplittableRandom rng = new SplittableRandom(4);
+        for (int q = 0; q < 200; q++) {
+            int s = SolverEquivalenceTest.randomOpenCell(maze, rng), g = SolverEquivalenceTest.randomOpenCell(maze, rng);
+            SearchResult first = optimistic.solve(maze, new SearchContext(s, g, SearchListener.NONE));
+            SearchResult again = optimistic.solve(maze, new SearchContext(s, g, SearchListener.NONE));
+            if (first.complete()) assertArrayEquals(first.path, again.path);
+        }
+    }
+
+    private static Solver counting(Solver solver, AtomicInteger calls) {
+        return (m, c) -> {
+            calls.incrementAndGet();
+            return solver.solve(m, c);
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Exact solvers must agree with BFS on reachability and path length for random queries. */
+class SolverEquivalenceTest {
+
+    private static final double[] DENSITIES = {0, 0.05, 0.3};
+
+    @Test
+    void aStarMatchesBfs() {
+        assertMatchesBfs(AStar::search);
+        assertEdgeCases(AStar::search);
+    }
+
+    @Test
+    void bidirectionalBfsMatchesBfs() {
+        assertMatchesBfs(BidirectionalBFS::search);
+        assertEdgeCases(BidirectionalBFS::search);
+    }
+
+    @Test
+    void parallelBfsMatchesBfs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Solver parallel = (m, c) -> ParallelBFS.search(m, c, pool);
+            assertMatchesBfs(parallel);
+            assertEdgeCases(parallel);
+
+            // an open field from its centre: wide enough frontiers for parallel top-down levels too
+            Maze field = new Maze(2501, 2501);
+            field.generateFast(1, 0);
+            for (int id = 0; id < field.size(); id++) {
+                int r = field.row(id), c = field.col(id);
+                if (r > 0 && c > 0 && r < field.rows - 1 && c < field.cols - 1) field.setWall(id, false);
+            }
+            SearchContext ctx = new SearchContext();
+            int centre = field.id(field.rows / 2, field.cols / 2);
+            SplittableRandom rng = new SplittableRandom(1);
+            for (int q = 0; q < 4; q++) {
+                int goal = randomOpenCell(field, rng);
+                SearchResult bfs = BFS.search(field, ctx.query(centre, goal, SearchListener.NONE));
+                SearchResult r = parallel.solve(field, ctx.query(centre, goal, SearchListener.NONE));
+                assertEquals(bfs.path.length, r.path.length);
+                DStarLiteTest.assertValidPath(field, centre, goal, r.path);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void jumpPointSearchMatchesBfs() {
+        assertMatchesBfs(JumpPointSearch::search);
+    }
+
+    @Test
+    void junctionGraphMatchesBfs() {
+        assertMatchesBfs(JunctionGraph::search);
+    }
+
+    @Test
+    void junctionGraphRebuildsAfterEdit() {
+        Maze maze = new Maze(41, 41);
+        maze.generateFast(2, 0);
+        JunctionGraph before = JunctionGraph.of(maze);
+        assertSame(before, JunctionGraph.of(maze));
+
+        SearchResult r = JunctionGraph.search(maze, new SearchContext(maze.start, maze.goal, SearchListener.NONE));
+        maze.setWall(r.path[r.path.length / 2], true);   // cuts the only path of a perfect maze
+        assertNotSame(before, JunctionGraph.of(maze));
+        assertFalse(JunctionGraph.search(maze, new SearchContext(maze.start, maze.goal, SearchListener.NONE)).found());
+    }
+
+    static void assertMatchesBfs(Solver solver) {
+        SearchContext ctx = new SearchContext();
+        int queries = 0;
+        for (double extra : DENSITIES) {
+            for (long seed = 1; seed <= 10; seed++) {
+                Maze maze = new Maze(51, 71);
+                maze.generateFast(seed, extra);
+                SplittableRandom rng = new SplittableRandom(seed);
+                for (int q = 0; q < 20; q++) {
+                    int start = randomOpenCell(maze, rng), goal = randomOpenCell(maze, rng);
+                    SearchResult bfs = BFS.search(maze, ctx.query(start, goal, SearchListener.NONE));
+                    SearchResult r = solver.solve(maze, ctx.query(start, goal, SearchListener.NONE));
+                    String where = "seed " + seed + ", extra " + extra + ", " + start + "->" + goal;
+                    assertEquals(bfs.found(), r.found(), where);
+                    if (bfs.found()) {
+                        assertEquals(bfs.path.length, r.path.length, where);
+                        DStarLiteTest.assertValidPath(maze, start, goal, r.path);
+                    }
+                    queries++;
+                }
+            }
+        }
+        assertEquals(600, queries);
+    }
+
+    // start == goal, a goal that is itself a wall, and an open goal sealed off by walls
+    static void assertEdgeCases(Solver solver) {
+        Maze maze = new Maze(31, 31);
+        maze.generateFast(1, 0.1);
+        SearchResult self = solver.solve(maze, new SearchContext(maze.start, maze.start, SearchListener.NONE));
+        assertTrue(self.found());
+        assertArrayEquals(new int[] {maze.start}, self.path);
+
+        int wall = -1;
+        for (int id = 0; id < maze.size() && wall < 0; id++) if (maze.isWall(id)) wall = id;
+        assertFalse(solver.solve(maze, new SearchContext(maze.start, wall, SearchListener.NONE)).found());
+
+        int goal = maze.goal;
+        for (int d = 0; d < 4; d++) {
+            int nb = maze.neighbor(goal, d);
+            if (nb >= 0) maze.setWall(nb, true);
+        }
+        SearchResult sealed = solver.solve(maze, new SearchContext(maze.start, goal, SearchListener.NONE));
+        assertEquals(SearchResult.Status.NOT_FOUND, sealed.status);
+    }
+
+    static int randomOpenCell(Maze maze, SplittableRandom rng) {
+        while (true) {
+            int id = rng.nextInt(maze.size());
+            if (!maze.isWall(id)) return id;
+        }
+    }
+}
@@ -1,5 +1,6 @@
+// command-line entry point: headless solver sweeps (see maze.SolverCli); the GUI is maze.MazeApp
 public class App {
     public static void main(String[] args) {
-        System.out.println("Hello World!");
+        maze.SolverCli.main(args);
     }
 }
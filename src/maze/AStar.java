@@ -0,0 +1,66 @@
+package maze;
+
+/**
+ * A* on the 4-connected grid with unit step cost.
+ * Open list is an IndexedMinHeap keyed by (f, h) so ties go to the cell closest to the goal.
+ */
+public class AStar {
+
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+        return search(maze, ctx, Heuristic.MANHATTAN);
+    }
+
+    public static SearchResult search(Maze maze, SearchContext ctx, Heuristic h) {
+
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
+
+        // per-search state lives in the context; g is only valid for seen cells
+        ctx.begin(maze.size());
+        int[] g = ctx.dist();
+        int[] parent = ctx.parent();
+        IndexedMinHeap open = ctx.heap();
+
+        ctx.markSeen(start);
+        g[start] = 0;
+        parent[start] = -1;
+        open.insertOrDecrease(start, key(0, h.estimate(maze, start, goal)));
+        ctx.generate(start);
+        int expanded = 0;
+
+        while (!open.isEmpty()) {
+            if (ctx.exhausted(expanded)) return ctx.stopped(expanded);
+            int cur = open.poll();
+            ctx.markClosed(cur);
+            expanded++;
+
+            if (cur == goal) {
+                return new SearchResult(SearchResult.tracePath(parent, goal, listener), expanded);
+            }
+
+            int ng = g[cur] + 1;
+            for (int d = 0; d < 4; d++) {
+                int nxt = maze.neighbor(cur, d);
+                if (nxt < 0 || maze.isWall(nxt)) continue;
+
+                boolean fresh = !ctx.seen(nxt);
+                if (!fresh && (ctx.closed(nxt) || ng >= g[nxt])) continue;
+
+                ctx.markSeen(nxt);
+                g[nxt] = ng;
+                parent[nxt] = cur;
+                open.insertOrDecrease(nxt, key(ng, h.estimate(maze, nxt, goal)));
+                if (fresh) ctx.generate(nxt);
+            }
+            ctx.frontier(open.size());
+        }
+        return new SearchResult(null, expanded);
+    }
+
+    // order by f = g + h, then by smaller h
+    private static long key(int g, int h) {
+        return ((long) (g + h) << 32) | h;
+    }
+}
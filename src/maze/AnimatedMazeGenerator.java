@@ -2,32 +2,36 @@ package maze;
 
 import java.util.*;
 
+/**
+ * Randomized DFS generator that can record its carving into a SearchEventLog, plus the helpers
+ * that run solvers for the UI. Nothing here sleeps: generation and solving run at full speed
+ * into a log, and a Playback replays the log at the speed the user picked.
+ */
 public class AnimatedMazeGenerator {
 
-    public static MazePanel panel;         // set by MazePanel constructor
-    public static int carveDelay = 8;      // ms per carve step (adjust)
+    // fraction of cells knocked open after carving, to add loops
+    public static final double DEFAULT_EXTRA_OPENINGS = 1.0 / 60;
+
+    public static void generate(Maze maze) {
+        generate(maze, new Random(), DEFAULT_EXTRA_OPENINGS);
+    }
+
+    public static void generate(Maze maze, Random rng, double extraOpenings) {
+        generate(maze, rng, extraOpenings, null);
+    }
 
     /**
-     * Animated randomized DFS maze generation.
-     * This function updates maze.grid in place and calls panel.repaint() during carving.
+     * Randomized DFS maze generation.
+     * This function updates the maze wall bits in place and logs every carved cell to log (if not null).
+     * A cell still being a wall doubles as "not visited yet", so no extra per-cell state is needed.
+     * extraOpenings is the fraction of rows*cols extra walls removed at the end (0 = perfect maze).
      */
-    public static void generate(Maze maze) {
-        // safety: if panel not set yet, we'll still update grid but won't animate
-        Cell[][] grid = maze.grid;
+    public static void generate(Maze maze, Random rng, double extraOpenings, SearchEventLog log) {
         int rows = maze.rows;
         int cols = maze.cols;
 
         // start with all walls
-        for (int r = 0; r < rows; r++)
-            for (int c = 0; c < cols; c++) {
-                grid[r][c].wall = true;
-                grid[r][c].visited = false;
-                grid[r][c].frontier = false;
-                grid[r][c].path = false;
-                grid[r][c].parent = null;
-            }
-
-        Random rng = new Random();
+        maze.fillWalls();
 
         // pick starting odd coordinates (1,1) is fine
         int sr = 1;
@@ -37,28 +41,26 @@ public class AnimatedMazeGenerator {
             sc = 1 + 2 * rng.nextInt(Math.max(1, (cols - 2) / 2));
         }
 
-        grid[sr][sc].wall = false;
-        grid[sr][sc].visited = true;
+        carve(maze, maze.id(sr, sc), log);
 
-        Stack<Cell> stack = new Stack<>();
-        stack.push(grid[sr][sc]);
+        Stack<Integer> stack = new Stack<>();
+        stack.push(maze.id(sr, sc));
 
         int[][] dirs = {{2, 0}, {-2, 0}, {0, 2}, {0, -2}};
 
         while (!stack.isEmpty()) {
-            Cell cur = stack.peek();
-
-            // animate current iteration
-            animateStep();
+            int cur = stack.peek();
+            int cr = maze.row(cur);
+            int cc = maze.col(cur);
 
             // gather unvisited neighbors 2 steps away
-            List<Cell> neighbors = new ArrayList<>();
+            List<Integer> neighbors = new ArrayList<>();
             for (int[] d : dirs) {
-                int nr = cur.row + d[0];
-                int nc = cur.col + d[1];
+                int nr = cr + d[0];
+                int nc = cc + d[1];
                 if (nr > 0 && nc > 0 && nr < rows - 1 && nc < cols - 1) {
-                    if (grid[nr][nc].wall && !grid[nr][nc].visited) {
-                        neighbors.add(grid[nr][nc]);
+                    if (maze.isWall(nr, nc)) {
+                        neighbors.add(maze.id(nr, nc));
                     }
                 }
             }
@@ -68,81 +70,93 @@ public class AnimatedMazeGenerator {
                 continue;
             }
 
-            Cell next = neighbors.get(rng.nextInt(neighbors.size()));
-            next.visited = true;
+            int next = neighbors.get(rng.nextInt(neighbors.size()));
 
             // carve the wall in between
-            int mr = (cur.row + next.row) / 2;
-            int mc = (cur.col + next.col) / 2;
-            grid[mr][mc].wall = false;
-            animateStep();
-
-            next.wall = false;
-            animateStep();
+            int mr = (cr + maze.row(next)) / 2;
+            int mc = (cc + maze.col(next)) / 2;
+            carve(maze, maze.id(mr, mc), log);
+            carve(maze, next, log);
 
             stack.push(next);
         }
 
         // add a few random openings to increase complexity
-        int extra = rows * cols / 60;
+        int extra = (int) (maze.size() * extraOpenings);
         for (int i = 0; i < extra; i++) {
             int r = 1 + rng.nextInt(Math.max(1, rows - 2));
             int c = 1 + rng.nextInt(Math.max(1, cols - 2));
-            grid[r][c].wall = false;
+            carve(maze, maze.id(r, c), log);
         }
+    }
 
-        // ensure generator flags aren't left set
-        for (int r = 0; r < rows; r++)
-            for (int c = 0; c < cols; c++) {
-                grid[r][c].visited = false;
-            }
+    private static void carve(Maze maze, int cell, SearchEventLog log) {
+        maze.setWall(cell, false);
+        if (log != null) log.append(cell, SearchEventLog.CARVE);
+    }
+
+
+    // Helpers for the UI. Call them on the EDT: the work runs on a background thread at full
+    // speed into a fresh SearchEventLog, which the playback starts replaying right away.
 
-        // final repaint
-        animateStep();
+    // new random maze, replayed cell by cell as it is carved
+    public static void generate(Maze maze, Playback pb) {
+        cancelRun();
+        SearchEventLog log = new SearchEventLog(true);
+        pb.play(log);
+        new Thread(() -> {
+            maze.generate(new Random().nextLong(), DEFAULT_EXTRA_OPENINGS, log);
+            log.finish();
+        }, "generator").start();
     }
 
-    private static void animateStep() {
-        if (panel != null) {
-            panel.repaint();
-            try { Thread.sleep(carveDelay); } catch (InterruptedException ignored) {}
-        }
+    // any solver type; used by the Run button
+    public static void run(SearchType type, Maze maze, Playback pb) {
+        Solver solver = Solver.of(type);
+        if (solver != null) runOnPanel(solver, maze, pb);
     }
 
-   
-    // Helper wrappers to run searches on background threads
- 
-    public static void runBFS(Maze maze, MazePanel p) {
-        // attach panel so searches that use panel.repaintPause() can work
-        panel = p;
-        new Thread(() -> {
-            maze.clearAlgorithmData();
-            BFS.search(maze, p);
-        }).start();
+    public static void runBFS(Maze maze, Playback pb) {
+        runOnPanel(BFS::search, maze, pb);
     }
 
-    public static void runDFS(Maze maze, MazePanel p) {
-        panel = p;
-        new Thread(() -> {
-            maze.clearAlgorithmData();
-            DFS.search(maze, p);
-        }).start();
+    public static void runDFS(Maze maze, Playback pb) {
+        runOnPanel(DFS::search, maze, pb);
     }
 
-    public static void runOptimistic(Maze maze, MazePanel p) {
-        panel = p;
-        new Thread(() -> {
-            maze.clearAlgorithmData();   // ensure fresh visualization
-            Optimistic.search(maze, p);
-        }).start();
-    }   
-    
-    public static void runGreedyHeatmap(Maze maze, MazePanel p) {
-        panel = p;
-        new Thread(() -> {
-            maze.clearAlgorithmData();
-            GreedyBFSFallback.run(maze, p);
-        }).start();
+    public static void runAStar(Maze maze, Playback pb) {
+        runOnPanel(AStar::search, maze, pb);
     }
 
+    public static void runOptimistic(Maze maze, Playback pb) {
+        runOnPanel(Optimistic::search, maze, pb);
+    }
 
+    public static void runGreedyHeatmap(Maze maze, Playback pb) {
+        runOnPanel(GreedyBFSFallback::run, maze, pb);
+    }
+
+    // the search currently running, so a new run (or the Stop button) can cancel it
+    private static volatile SearchContext running;
+
+    /** Cancels the running search, if any; it stops at its next expansion. */
+    public static void cancelRun() {
+        SearchContext ctx = running;
+        if (ctx != null) ctx.cancel();
+    }
+
+    private static void runOnPanel(Solver solver, Maze maze, Playback pb) {
+        cancelRun();
+        SearchEventLog log = new SearchEventLog();
+        SearchContext ctx = new SearchContext(maze.start, maze.goal, log);
+        running = ctx;
+        pb.play(log);
+        new Thread(() -> {
+            try {
+                solver.solve(maze, ctx);
+            } finally {
+                log.finish();
+            }
+        }, "solver").start();
+    }
 }
@@ -0,0 +1,154 @@
+package maze;
+
+/**
+ * ARA*: anytime A* that answers fast and then tightens the answer (Likhachev, Gordon & Thrun, 2003).
+ *
+ * The first pass is weighted A* with f = g + epsilon * h, which dives toward the goal and returns a
+ * path at most epsilon times longer than the shortest. Each later pass lowers epsilon and reuses
+ * everything found so far: only cells whose g improved since they were last expanded (kept on
+ * an "inconsistent" list) go back on the open list, so no pass starts from scratch.
+ *
+ * Every improved path is published through SearchListener.onSolution together with its proven
+ * bound, min(epsilon, g(goal) / min(g + h) over open and inconsistent cells). The run ends at
+ * epsilon 1 with a shortest path (FOUND), or earlier when the context's limits trip, in which case
+ * the best path so far is returned with the BUDGET_EXHAUSTED / CANCELLED status, so callers can
+ * tell it is only proven within the last published bound.
+ */
+public class AnytimeAStar {
+
+    public static final double DEFAULT_EPSILON = 3.0;
+    public static final double DEFAULT_STEP = 0.5;
+
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+        return search(maze, ctx, DEFAULT_EPSILON, DEFAULT_STEP);
+    }
+
+    public static SearchResult search(Maze maze, SearchContext ctx, double epsilon, double step) {
+        if (epsilon < 1 || step <= 0) throw new IllegalArgumentException("need epsilon >= 1 and step > 0");
+
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
+
+        // g is only valid for seen cells; closedIn / inconsIn hold the pass that closed / listed a cell
+        ctx.begin(maze.size());
+        int[] g = ctx.dist();
+        int[] parent = ctx.parent();
+        int[] closedIn = ctx.buffer();
+        int[] inconsIn = ctx.bufferBack();
+        int[] incons = ctx.distBack();
+        int[] drained = ctx.parentBack();
+        IndexedMinHeap open = ctx.heap();
+
+        ctx.markSeen(start);
+        g[start] = 0;
+        parent[start] = -1;
+        closedIn[start] = 0;
+        inconsIn[start] = 0;
+        open.insertOrDecrease(start, key(0, h(maze, start, goal), epsilon));
+        ctx.generate(start);
+
+        int expanded = 0;
+        int pass = 1;
+        int inconsSize = 0;
+        int[] best = null;
+
+        while (true) {
+            // improvePath: expand until nothing on open can beat the goal under this epsilon
+            while (!open.isEmpty()) {
+                if (ctx.seen(goal) && key(g[goal], 0, epsilon) <= open.key(open.peek())) break;
+                if (ctx.exhausted(expanded)) {
+                    SearchResult stopped = ctx.stopped(expanded);
+                    return best != null ? finish(best, expanded, stopped.status, listener) : stopped;
+                }
+                int cur = open.poll();
+                closedIn[cur] = pass;
+                expanded++;
+
+                int ng = g[cur] + 1;
+                for (int d = 0; d < 4; d++) {
+                    int nxt = maze.neighbor(cur, d);
+                    if (nxt < 0 || maze.isWall(nxt)) continue;
+
+                    boolean fresh = !ctx.seen(nxt);
+                    if (!fresh && ng >= g[nxt]) continue;
+
+                    if (fresh) {
+                        ctx.markSeen(nxt);
+                        closedIn[nxt] = 0;
+                        inconsIn[nxt] = 0;
+                        ctx.generate(nxt);
+                    }
+                    g[nxt] = ng;
+                    parent[nxt] = cur;
+                    if (closedIn[nxt] != pass) {
+                        open.insertOrDecrease(nxt, key(ng, h(maze, nxt, goal), epsilon));
+                    } else if (inconsIn[nxt] != pass) {
+                        // already expanded this pass; it waits for the next one
+                        inconsIn[nxt] = pass;
+                        incons[inconsSize++] = nxt;
+                    }
+                }
+                ctx.frontier(open.size() + inconsSize);
+            }
+            if (!ctx.seen(goal)) return new SearchResult(null, expanded);
+
+            // drain open to re-key it, and take min(g + h) over open and incons for the bound
+            int drainedSize = 0;
+            long minGH = g[goal];
+            while (!open.isEmpty()) {
+                int c = open.poll();
+                drained[drainedSize++] = c;
+                minGH = Math.min(minGH, (long) g[c] + h(maze, c, goal));
+            }
+            for (int i = 0; i < inconsSize; i++) {
+                int c = incons[i];
+                minGH = Math.min(minGH, (long) g[c] + h(maze, c, goal));
+            }
+            double bound = Math.min(epsilon, minGH == 0 ? 1 : (double) g[goal] / minGH);
+
+            if (best == null || g[goal] < best.length - 1) {
+                best = pathTo(parent, goal);
+                listener.onSolution(best, bound);
+            }
+            if (epsilon <= 1) break;
+
+            // next pass: lower epsilon, move incons back to open, clear closed by bumping the pass
+            epsilon = Math.max(1, epsilon - step);
+            pass++;
+            for (int i = 0; i < drainedSize; i++) {
+                int c = drained[i];
+                open.insertOrDecrease(c, key(g[c], h(maze, c, goal), epsilon));
+            }
+            for (int i = 0; i < inconsSize; i++) {
+                int c = incons[i];
+                open.insertOrDecrease(c, key(g[c], h(maze, c, goal), epsilon));
+            }
+            inconsSize = 0;
+        }
+
+        return finish(best, expanded, SearchResult.Status.FOUND, listener);
+    }
+
+    private static SearchResult finish(int[] best, int expanded, SearchResult.Status status, SearchListener listener) {
+        for (int i = best.length - 1; i >= 0; i--) listener.onPath(best[i]);
+        return new SearchResult(best, expanded, status);
+    }
+
+    private static int[] pathTo(int[] parent, int goal) {
+        IntList path = new IntList();
+        for (int cur = goal; cur != -1; cur = parent[cur]) path.add(cur);
+        path.reverse();
+        return path.toArray();
+    }
+
+    private static int h(Maze maze, int cell, int goal) {
+        return Math.abs(maze.row(cell) - maze.row(goal)) + Math.abs(maze.col(cell) - maze.col(goal));
+    }
+
+    // f = g + epsilon * h as a non-negative double; its raw bits sort the same way as the value
+    private static long key(int g, int h, double epsilon) {
+        return Double.doubleToLongBits(g + epsilon * h);
+    }
+}
@@ -1,82 +1,48 @@
 package maze;
 
-import java.util.*;
-
 public class BFS {
 
-    public static List<Cell> search(Maze maze, MazePanel panel) {
-
-        // reset any previous flags (defensive)
-        maze.clearAlgorithmData();
+    public static SearchResult search(Maze maze, SearchContext ctx) {
 
-        Queue<Cell> q = new LinkedList<>();
-        Map<Cell, Cell> parent = new HashMap<>();
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
 
-        Cell start = maze.start;
-        Cell goal = maze.goal;
-        if (start == null || goal == null) return null;
+        // per-search state lives in the context
+        ctx.begin(maze.size());
+        int[] parent = ctx.parent();
+        int[] q = ctx.buffer();   // each cell is queued at most once
+        int head = 0, tail = 0;
 
-        q.add(start);
-        start.visited = true;
-        start.frontier = true;
-        panel.repaintPause();
+        q[tail++] = start;
+        ctx.markSeen(start);
+        parent[start] = -1;
+        ctx.generate(start);
+        int expanded = 0;
 
-        while (!q.isEmpty()) {
-            Cell cur = q.poll();
+        while (head < tail) {
+            if (ctx.exhausted(expanded)) return ctx.stopped(expanded);
+            int cur = q[head++];
+            expanded++;
 
             if (cur == goal) {
-                // reconstruct path (goal→start animation is done by caller or here)
-                return buildPath(parent, start, goal, panel);
+                // reconstruct path (goal→start animation is done here)
+                return new SearchResult(SearchResult.tracePath(parent, goal, listener), expanded);
             }
 
-            for (Cell nxt : neighbors(maze, cur)) {
-                if (!nxt.visited && !nxt.wall) {
-                    nxt.visited = true;
-                    nxt.frontier = true;
-                    nxt.parent = cur;
-                    parent.put(nxt, cur);
+            for (int d = 0; d < 4; d++) {
+                int nxt = maze.neighbor(cur, d);
+                if (nxt >= 0 && !ctx.seen(nxt) && !maze.isWall(nxt)) {
+                    ctx.markSeen(nxt);
+                    parent[nxt] = cur;
 
-                    panel.repaintPause();
-                    q.add(nxt);
+                    ctx.generate(nxt);
+                    q[tail++] = nxt;
                 }
             }
+            ctx.frontier(tail - head);
         }
-        return null;
-    }
-
-    private static List<Cell> buildPath(Map<Cell, Cell> parent,
-                                        Cell start, Cell goal,
-                                        MazePanel panel) {
-
-        List<Cell> path = new ArrayList<>();
-        Cell cur = goal;
-
-        // walk back using parent pointers and animate goal->start
-        while (cur != null && cur != start) {
-            cur.path = true;
-            panel.repaintPause();
-            path.add(cur);
-            cur = parent.get(cur);
-        }
-        // include start
-        start.path = true;
-        panel.repaintPause();
-        path.add(start);
-
-        // path currently is goal->start; reverse to return start->goal if you want
-        Collections.reverse(path);
-        return path;
-    }
-
-    private static List<Cell> neighbors(Maze maze, Cell c) {
-        List<Cell> list = new ArrayList<>();
-        int[][] DIRS = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] d : DIRS) {
-            int nr = c.row + d[0];
-            int nc = c.col + d[1];
-            if (nr >= 0 && nc >= 0 && nr < maze.rows && nc < maze.cols)
-                list.add(maze.grid[nr][nc]);
-        }
-        return list;
+        return new SearchResult(null, expanded);
     }
 }
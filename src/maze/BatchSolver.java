@@ -0,0 +1,210 @@
+package maze;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many (maze, start, goal, SearchType) jobs on a ForkJoinPool and streams results back
+ * in completion order.
+ *
+ * Jobs are pulled lazily from an Iterator by a feeder thread, and at most maxInFlight jobs may be
+ * queued, running, or finished-but-not-yet-taken at once, so a slow consumer throttles the feeder
+ * instead of piling results up in memory. Workers borrow SearchContexts from a shared pool.
+ * Optional per-job limits (timeout, max expansions) come back as BUDGET_EXHAUSTED results.
+ * Every job is run through SearchMetrics, so each Outcome carries its metrics record.
+ * close() cancels the batches still open and waits for their jobs, so their next() still ends.
+ *
+ * <pre>
+ * try (BatchSolver solver = new BatchSolver(32, 256)) {
+ *     BatchSolver.Batch batch = solver.start(jobs.iterator());
+ *     for (BatchSolver.Outcome o; (o = batch.next()) != null; ) { ... }
+ * }
+ * </pre>
+ */
+public class BatchSolver implements AutoCloseable {
+
+    public static class Job {
+        public final Maze maze;
+        public final int start, goal;
+        public final SearchType type;
+
+        public Job(Maze maze, int start, int goal, SearchType type) {
+            this.maze = maze;
+            this.start = start;
+            this.goal = goal;
+            this.type = type;
+        }
+    }
+
+    public static class Outcome {
+        public final Job job;
+        public final SearchResult result;   // null if the job threw
+        public final SearchMetrics metrics; // null if the job threw
+        public final Throwable error;       // exception or error the job threw, else null
+        public final long nanos;
+
+        Outcome(Job job, SearchMetrics metrics, Throwable error, long nanos) {
+            this.job = job;
+            this.result = metrics != null ? metrics.result : null;
+            this.metrics = metrics;
+            this.error = error;
+            this.nanos = nanos;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final SearchContextPool contexts;
+    private final int maxInFlight;
+    private volatile long jobTimeoutNanos = Long.MAX_VALUE;
+    private volatile int jobMaxExpanded = Integer.MAX_VALUE;
+    private final Set<Batch> open = ConcurrentHashMap.newKeySet();
+
+    public BatchSolver(int threads, int maxInFlight) {
+        this.pool = new ForkJoinPool(threads);
+        this.contexts = new SearchContextPool(threads);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /** Limits applied to every job started after this call. */
+    public BatchSolver limits(long timeout, TimeUnit unit, int maxExpanded) {
+        this.jobTimeoutNanos = timeout == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toNanos(timeout);
+        this.jobMaxExpanded = maxExpanded;
+        return this;
+    }
+
+    public Batch start(Iterator<Job> jobs) {
+        Batch batch = new Batch();
+        open.add(batch);
+        batch.feeder = new Thread(() -> batch.feed(jobs), "batch-feeder");
+        batch.feeder.setDaemon(true);
+        batch.feeder.start();
+        return batch;
+    }
+
+    /**
+     * Cancels every open batch and shuts the pool down. Queued jobs still run (as no-ops, being
+     * cancelled) so each batch reaches its end; waits for the running ones to notice the cancel.
+     */
+    @Override
+    public void close() {
+        for (Batch b : open) b.cancel();
+        pool.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.MINUTES)) break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /** Handle on one running batch. next() blocks for the next finished job, null once all are done. */
+    public class Batch {
+
+        private final Outcome END = new Outcome(null, null, null, 0);
+
+        private final LinkedBlockingQueue<Outcome> results = new LinkedBlockingQueue<>();
+        private final Semaphore permits = new Semaphore(maxInFlight);
+        // submitted-but-not-finished jobs, plus one token held by the feeder until it is done
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final Set<SearchContext> running = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+        private volatile Throwable feedError;
+        private Thread feeder;
+        private boolean finished;
+
+        public Outcome next() throws InterruptedException {
+            if (finished) return null;
+            Outcome o = results.take();
+            if (o == END) {
+                finished = true;
+                return null;
+            }
+            permits.release();
+            return o;
+        }
+
+        /** Stops feeding new jobs, drops ones that have not started yet and cancels running ones. */
+        public void cancel() {
+            cancelled = true;
+            feeder.interrupt();
+            for (SearchContext ctx : running) ctx.cancel();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** What the job iterator threw, if it failed; the batch then ends early without the remaining jobs. */
+        public Throwable feedError() {
+            return feedError;
+        }
+
+        private void feed(Iterator<Job> jobs) {
+            try {
+                while (!cancelled && jobs.hasNext()) {
+                    Job job = jobs.next();
+                    permits.acquire();
+                    pending.incrementAndGet();
+                    try {
+                        pool.execute(() -> runJob(job));
+                    } catch (RejectedExecutionException e) {
+                        // pool closed: undo the bookkeeping so the batch can still end
+                        permits.release();
+                        done();
+                        if (!cancelled) feedError = e;
+                        break;
+                    }
+                }
+            } catch (InterruptedException ignored) {
+                // cancelled while waiting for a permit
+            } catch (Throwable e) {
+                feedError = e;   // hasNext()/next() failed; the batch ends with what was submitted
+            } finally {
+                done();
+            }
+        }
+
+        private void runJob(Job job) {
+            try {
+                if (cancelled) {
+                    permits.release();
+                    return;
+                }
+                long t0 = System.nanoTime();
+                SearchContext ctx = null;
+                try {
+                    ctx = contexts.acquire();
+                    ctx.query(job.start, job.goal, SearchListener.NONE)
+                            .timeout(jobTimeoutNanos, TimeUnit.NANOSECONDS)
+                            .maxExpanded(jobMaxExpanded);
+                    running.add(ctx);
+                    if (cancelled) ctx.cancel();   // cancel() may have walked the set before the add
+                    SearchMetrics m = SearchMetrics.run(job.type, job.maze, ctx);
+                    results.add(new Outcome(job, m, null, System.nanoTime() - t0));
+                } catch (Throwable e) {
+                    // errors too (OOM, stack overflow): every job must come back, or next() never sees END
+                    results.add(new Outcome(job, null, e, System.nanoTime() - t0));
+                } finally {
+                    if (ctx != null) {
+                        running.remove(ctx);
+                        contexts.release(ctx);
+                    }
+                }
+            } finally {
+                done();
+            }
+        }
+
+        private void done() {
+            if (pending.decrementAndGet() == 0) {
+                open.remove(this);
+                results.add(END);
+            }
+        }
+    }
+}
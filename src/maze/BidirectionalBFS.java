@@ -0,0 +1,112 @@
+package maze;
+
+/**
+ * BFS grown from both start and goal. Each round expands one full level of whichever
+ * frontier is smaller; once a level produces a meeting, the best meeting in that level
+ * is taken, so the path is still exactly shortest.
+ */
+public class BidirectionalBFS {
+
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
+        // the backward tree would grow out of a walled goal; BFS never steps onto one
+        if (start != goal && maze.isWall(goal)) return new SearchResult(null, 0);
+
+        ctx.begin(maze.size());
+        int[] parentF = ctx.parent();
+        int[] distF = ctx.dist();
+        int[] qF = ctx.buffer();
+        int[] parentB = ctx.parentBack();
+        int[] distB = ctx.distBack();
+        int[] qB = ctx.bufferBack();
+
+        int headF = 0, tailF = 0, headB = 0, tailB = 0;
+        qF[tailF++] = start;
+        ctx.markSeen(start);
+        parentF[start] = -1;
+        distF[start] = 0;
+        qB[tailB++] = goal;
+        ctx.markSeenBack(goal);
+        parentB[goal] = -1;
+        distB[goal] = 0;
+        ctx.generate(start);
+        ctx.generate(goal);
+
+        int expanded = 0;
+        int best = Integer.MAX_VALUE;
+        int meetF = -1, meetB = -1;   // adjacent cells where the two trees touch
+
+        if (start == goal) {
+            best = 0;
+            meetF = meetB = start;
+        }
+
+        while (best == Integer.MAX_VALUE && headF < tailF && headB < tailB) {
+            if (tailF - headF <= tailB - headB) {
+                // forward level
+                for (int end = tailF; headF < end; ) {
+                    if (ctx.exhausted(expanded)) return ctx.stopped(expanded);
+                    int cur = qF[headF++];
+                    expanded++;
+                    for (int d = 0; d < 4; d++) {
+                        int nxt = maze.neighbor(cur, d);
+                        if (nxt < 0 || maze.isWall(nxt)) continue;
+                        if (ctx.seenBack(nxt) && distF[cur] + 1 + distB[nxt] < best) {
+                            best = distF[cur] + 1 + distB[nxt];
+                            meetF = cur;
+                            meetB = nxt;
+                        }
+                        if (!ctx.seen(nxt)) {
+                            ctx.markSeen(nxt);
+                            parentF[nxt] = cur;
+                            distF[nxt] = distF[cur] + 1;
+                            ctx.generate(nxt);
+                            qF[tailF++] = nxt;
+                        }
+                    }
+                    ctx.frontier(tailF - headF + tailB - headB);
+                }
+            } else {
+                // backward level
+                for (int end = tailB; headB < end; ) {
+                    if (ctx.exhausted(expanded)) return ctx.stopped(expanded);
+                    int cur = qB[headB++];
+                    expanded++;
+                    for (int d = 0; d < 4; d++) {
+                        int nxt = maze.neighbor(cur, d);
+                        if (nxt < 0 || maze.isWall(nxt)) continue;
+                        if (ctx.seen(nxt) && distB[cur] + 1 + distF[nxt] < best) {
+                            best = distB[cur] + 1 + distF[nxt];
+                            meetF = nxt;
+                            meetB = cur;
+                        }
+                        if (!ctx.seenBack(nxt)) {
+                            ctx.markSeenBack(nxt);
+                            parentB[nxt] = cur;
+                            distB[nxt] = distB[cur] + 1;
+                            ctx.generate(nxt);
+                            qB[tailB++] = nxt;
+                        }
+                    }
+                    ctx.frontier(tailF - headF + tailB - headB);
+                }
+            }
+        }
+
+        if (best == Integer.MAX_VALUE) return new SearchResult(null, expanded);
+
+        // start..meetF from the forward tree, then meetB..goal from the backward tree
+        IntList path = new IntList();
+        for (int c = meetF; c != -1; c = parentF[c]) path.add(c);
+        path.reverse();
+        if (meetB != meetF) {
+            for (int c = meetB; c != -1; c = parentB[c]) path.add(c);
+        }
+        for (int i = 0; i < path.size(); i++) listener.onPath(path.get(i));
+        return new SearchResult(path.toArray(), expanded);
+    }
+}
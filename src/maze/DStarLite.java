@@ -0,0 +1,199 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * D* Lite: incremental shortest paths for a walker whose map changes under it.
+ *
+ * The search runs backwards from the goal, so g[] holds each cell's distance to the goal and
+ * survives between plan() calls. When walls change, only the changed cells and their neighbors
+ * get their one-step lookahead (rhs) recomputed; the next plan() repairs just the part of the
+ * tree those cells invalidated. Moving the start doesn't reorder the queue either: keys are
+ * offset by km, the heuristic distance moved so far (Koenig & Likhachev, 2002).
+ *
+ * Typical use: plan(), step along the path with moveTo(), report any walls discovered with
+ * setWall() or cellsChanged(), plan() again.
+ */
+public class DStarLite {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    public final Maze maze;
+    public final int goal;
+
+    private int start;
+    private int last;   // start at the last km update
+    private int km;
+
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedMinHeap open;
+
+    private SearchContext ctx = new SearchContext();   // listener and limits only; no grid state
+
+    public DStarLite(Maze maze, int start, int goal) {
+        this.maze = maze;
+        this.start = start;
+        this.last = start;
+        this.goal = goal;
+
+        int n = maze.size();
+        g = new int[n];
+        rhs = new int[n];
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        open = new IndexedMinHeap(n);
+
+        rhs[goal] = 0;
+        open.insertOrDecrease(goal, key(goal));
+    }
+
+    // one-shot Solver entry point (SearchType.DSTAR_LITE); no state is kept between queries
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+        if (ctx.start < 0 || ctx.goal < 0) return new SearchResult(null, 0);
+        return new DStarLite(maze, ctx.start, ctx.goal).context(ctx).plan();
+    }
+
+    /** Listener and limits (timeout, max expansions, cancel) used by subsequent plan() calls. */
+    public DStarLite context(SearchContext ctx) {
+        this.ctx = ctx;
+        return this;
+    }
+
+    public int start() { return start; }
+
+    /** Moves the walker to a new cell (normally the next one on the last planned path). */
+    public void moveTo(int cell) {
+        km += manhattan(last, cell);
+        last = cell;
+        start = cell;
+    }
+
+    /** Edits the maze and records the change for the next plan(). */
+    public void setWall(int cell, boolean wall) {
+        if (maze.isWall(cell) == wall) return;
+        maze.setWall(cell, wall);
+        cellChanged(cell);
+    }
+
+    /** Records cells whose wall status was changed directly on the maze. */
+    public void cellsChanged(int... cells) {
+        for (int cell : cells) cellChanged(cell);
+    }
+
+    /**
+     * Repairs the shortest path tree after moves and wall changes and returns the path from the
+     * current start to the goal. expanded counts only the cells touched by this call.
+     * A plan stopped by the context's limits leaves the queue consistent; the next plan() resumes it.
+     */
+    public SearchResult plan() {
+        ctx.arm();
+        int expanded = computeShortestPath();
+        if (expanded < 0) return ctx.stopped(~expanded);
+        if (maze.isWall(start) || g[start] == INF) return new SearchResult(null, expanded);
+
+        int[] path = new int[g[start] + 1];
+        int cur = start;
+        path[0] = cur;
+        for (int i = 1; i < path.length; i++) {
+            int best = -1;
+            for (int d = 0; d < 4; d++) {
+                int nxt = maze.neighbor(cur, d);
+                if (nxt >= 0 && !maze.isWall(nxt) && g[nxt] != INF && (best < 0 || g[nxt] < g[best])) best = nxt;
+            }
+            path[i] = cur = best;
+        }
+        for (int i = path.length - 1; i >= 0; i--) ctx.listener.onPath(path[i]);
+        return new SearchResult(path, expanded);
+    }
+
+    // cells expanded, or ~expanded if the context's limits stopped it first
+    private int computeShortestPath() {
+        int expanded = 0;
+        while (!open.isEmpty() && (open.key(open.peek()) < key(start) || rhs[start] != g[start])) {
+            if (ctx.exhausted(expanded)) return ~expanded;
+            int u = open.peek();
+            long oldKey = open.key(u);
+            long newKey = key(u);
+            if (oldKey < newKey) {
+                open.insertOrUpdate(u, newKey);   // stale key from before the walker moved
+                continue;
+            }
+            expanded++;
+            ctx.listener.onVisit(u);
+            if (g[u] > rhs[u]) {
+                // overconsistent: settle it, neighbors may now route through it
+                g[u] = rhs[u];
+                open.remove(u);
+                for (int d = 0; d < 4; d++) {
+                    int s = maze.neighbor(u, d);
+                    if (s < 0 || s == goal || maze.isWall(s)) continue;
+                    if (g[u] + 1 < rhs[s]) {
+                        rhs[s] = g[u] + 1;
+                        updateVertex(s);
+                    }
+                }
+            } else {
+                // underconsistent: its distance went up, so everything routed through it must recheck
+                int oldG = g[u];
+                g[u] = INF;
+                for (int d = 0; d < 4; d++) {
+                    int s = maze.neighbor(u, d);
+                    if (s >= 0 && s != goal && rhs[s] == oldG + 1) {
+                        rhs[s] = lookahead(s);
+                        updateVertex(s);
+                    }
+                }
+                if (u != goal) rhs[u] = lookahead(u);
+                updateVertex(u);
+            }
+            ctx.frontier(open.size());
+        }
+        return expanded;
+    }
+
+    // the cell and its neighbors all have edges through it, so their lookahead may have changed
+    private void cellChanged(int cell) {
+        if (cell != goal) {
+            rhs[cell] = lookahead(cell);
+            updateVertex(cell);
+        }
+        for (int d = 0; d < 4; d++) {
+            int s = maze.neighbor(cell, d);
+            if (s < 0 || s == goal) continue;
+            rhs[s] = lookahead(s);
+            updateVertex(s);
+        }
+    }
+
+    // rhs = min over neighbors of (1 + g); walls have no edges at all
+    private int lookahead(int cell) {
+        if (maze.isWall(cell)) return INF;
+        int best = INF;
+        for (int d = 0; d < 4; d++) {
+            int s = maze.neighbor(cell, d);
+            if (s >= 0 && !maze.isWall(s) && g[s] != INF && g[s] + 1 < best) best = g[s] + 1;
+        }
+        return best;
+    }
+
+    private void updateVertex(int cell) {
+        if (g[cell] != rhs[cell]) {
+            if (!open.contains(cell)) ctx.generated++;
+            open.insertOrUpdate(cell, key(cell));
+        } else {
+            open.remove(cell);
+        }
+    }
+
+    // (min(g, rhs) + h + km, min(g, rhs)) packed so long comparison is lexicographic
+    private long key(int cell) {
+        int m = Math.min(g[cell], rhs[cell]);
+        if (m == INF) return Long.MAX_VALUE;
+        return ((long) (m + manhattan(start, cell) + km) << 32) | m;
+    }
+
+    private int manhattan(int a, int b) {
+        return Math.abs(maze.row(a) - maze.row(b)) + Math.abs(maze.col(a) - maze.col(b));
+    }
+}
@@ -0,0 +1,119 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * True shortest-path distance from every cell to one goal, computed once by BFS from the goal.
+ * dist[id] is the number of steps to the goal, or -1 for walls and cells that can't reach it.
+ *
+ * Fields are cached on the maze (a few goals each) and rebuilt when maze.version() moves.
+ * Each goal builds under its own lock, so concurrent queries for other goals or mazes never wait.
+ * From any reachable start, stepping to a neighbor with dist - 1 walks a shortest path
+ * in O(path length); GreedyBFSFallback uses the field as its heatmap.
+ */
+public class DistanceField {
+
+    private static final int GOALS_PER_MAZE = 8;
+
+    // per-maze LRU of goal -> slot; the map lock is only held for lookups, the BFS runs under the slot's
+    static final class Cache extends LinkedHashMap<Integer, Slot> {
+        private static final long serialVersionUID = 1L;
+
+        Cache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Slot> eldest) {
+            return size() > GOALS_PER_MAZE;
+        }
+    }
+
+    static final class Slot {
+        DistanceField field;   // guarded by the slot
+    }
+
+    public final Maze maze;
+    public final int version;
+    public final int goal;
+    public final int[] dist;
+    public final int max;   // largest finite distance, for normalizing
+    public final int cells; // cells the BFS reached, i.e. the work of building the field
+
+    private DistanceField(Maze maze, int goal) {
+        this.maze = maze;
+        this.version = maze.version();
+        this.goal = goal;
+        this.dist = new int[maze.size()];
+        Arrays.fill(dist, -1);
+
+        int farthest = 0, reached = 0;
+        if (goal >= 0 && !maze.isWall(goal)) {
+            int[] q = new int[maze.size()];
+            int head = 0, tail = 0;
+            q[tail++] = goal;
+            dist[goal] = 0;
+            while (head < tail) {
+                int cur = q[head++];
+                int nd = dist[cur] + 1;
+                for (int d = 0; d < 4; d++) {
+                    int nxt = maze.neighbor(cur, d);
+                    if (nxt >= 0 && dist[nxt] == -1 && !maze.isWall(nxt)) {
+                        dist[nxt] = nd;
+                        farthest = nd;
+                        q[tail++] = nxt;
+                    }
+                }
+            }
+            reached = tail;
+        }
+        this.max = farthest;
+        this.cells = reached;
+    }
+
+    /** Cached field for (maze, goal), recomputed if the maze changed since it was built. */
+    public static DistanceField of(Maze maze, int goal) {
+        Slot slot;
+        synchronized (maze.distanceFields) {
+            slot = maze.distanceFields.computeIfAbsent(goal, g -> new Slot());
+        }
+        synchronized (slot) {
+            DistanceField f = slot.field;
+            if (f == null || f.version != maze.version()) {
+                f = new DistanceField(maze, goal);
+                slot.field = f;
+            }
+            return f;
+        }
+    }
+
+    public boolean reachable(int cell) {
+        return dist[cell] >= 0;
+    }
+
+    /** Heatmap value in [0..1] (0 at the goal), or -1 if the cell can't reach the goal. */
+    public double normalized(int cell) {
+        int d = dist[cell];
+        return d < 0 ? -1 : max == 0 ? 0 : (double) d / max;
+    }
+
+    /** Shortest path start->goal by following the gradient, or null if start can't reach the goal. */
+    public int[] pathFrom(int start) {
+        if (!reachable(start)) return null;
+        int[] path = new int[dist[start] + 1];
+        int cur = start;
+        for (int i = 0; i < path.length; i++) {
+            path[i] = cur;
+            for (int d = 0; d < 4; d++) {
+                int nxt = maze.neighbor(cur, d);
+                if (nxt >= 0 && dist[nxt] == dist[cur] - 1) {
+                    cur = nxt;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,128 @@
+package maze;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Streaming perfect-maze generator (Eller's algorithm).
+ *
+ * Works on one row of logical cells at a time and keeps only that row's set ids, so memory is
+ * O(cols) no matter how tall the maze is. Each finished grid row is handed to a MazeRowSink
+ * (a Maze, a MazeFile.RowWriter, a socket...). The layout matches the other generators:
+ * odd dimensions, cells on odd coordinates, a doorway at (0,1).
+ */
+public class EllerMazeGenerator {
+
+    /** Streams a rows x cols maze (both bumped to odd like Maze) into sink, top row first. */
+    public static void generate(long rows, int cols, long seed, double extraOpenings,
+                                MazeRowSink sink) throws IOException {
+        if (rows % 2 == 0) rows++;
+        if (cols % 2 == 0) cols++;
+        long height = (rows - 1) / 2;   // logical cell rows
+        int width = (cols - 1) / 2;     // logical cell columns
+        if (height < 1 || width < 1) throw new IllegalArgumentException("maze too small: " + rows + "x" + cols);
+
+        SplittableRandom rng = new SplittableRandom(seed);
+        int[] set = new int[width];       // set id of each cell in the current row, ids in [0, width)
+        int[] uf = new int[width];        // union-find over set ids, rebuilt per row
+        int[] remaining = new int[width]; // cells of each set not yet decided this row
+        boolean[] hasDown = new boolean[width];
+        boolean[] down = new boolean[width];
+        boolean[] used = new boolean[width];
+        long[] bits = new long[(cols + 63) >>> 6];
+
+        for (int j = 0; j < width; j++) set[j] = j;
+
+        // top border with the doorway
+        Arrays.fill(bits, -1L);
+        clear(bits, 1);
+        sink.row(0, bits);
+
+        for (long i = 0; i < height; i++) {
+            boolean last = i == height - 1;
+
+            // horizontal merges
+            for (int k = 0; k < width; k++) uf[k] = k;
+            Arrays.fill(bits, -1L);
+            for (int j = 0; j < width; j++) clear(bits, 2 * j + 1);
+            for (int j = 0; j + 1 < width; j++) {
+                int a = find(uf, set[j]);
+                int b = find(uf, set[j + 1]);
+                if (a != b && (last || rng.nextBoolean())) {
+                    uf[b] = a;
+                    clear(bits, 2 * j + 2);
+                }
+            }
+            for (int j = 0; j < width; j++) set[j] = find(uf, set[j]);
+            openExtra(bits, cols, extraOpenings, rng);
+            sink.row(2 * i + 1, bits);
+
+            if (last) break;
+
+            // vertical carves: every set goes down at least once
+            Arrays.fill(remaining, 0);
+            Arrays.fill(hasDown, false);
+            for (int j = 0; j < width; j++) remaining[set[j]]++;
+            Arrays.fill(bits, -1L);
+            for (int j = 0; j < width; j++) {
+                int s = set[j];
+                remaining[s]--;
+                boolean go = rng.nextBoolean() || (remaining[s] == 0 && !hasDown[s]);
+                down[j] = go;
+                if (go) {
+                    hasDown[s] = true;
+                    clear(bits, 2 * j + 1);
+                }
+            }
+            openExtra(bits, cols, extraOpenings, rng);
+            sink.row(2 * i + 2, bits);
+
+            // next row: carried cells keep their set, the rest get recycled ids
+            Arrays.fill(used, false);
+            for (int j = 0; j < width; j++) if (down[j]) used[set[j]] = true;
+            int free = 0;
+            for (int j = 0; j < width; j++) {
+                if (down[j]) continue;
+                while (used[free]) free++;
+                used[free] = true;
+                set[j] = free;
+            }
+        }
+
+        // bottom border
+        Arrays.fill(bits, -1L);
+        sink.row(rows - 1, bits);
+    }
+
+    /** Fills an in-memory maze and places start/goal like Maze.generate. */
+    public static void generate(Maze maze, long seed, double extraOpenings) {
+        try {
+            generate(maze.rows, maze.cols, seed, extraOpenings, MazeRowSink.into(maze));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);   // the in-memory sink never throws
+        }
+        maze.seed = seed;
+        maze.placeEndpoints(new SplittableRandom(seed)::nextInt);
+    }
+
+    // interior cells of a non-border row knocked open with probability p
+    private static void openExtra(long[] bits, int cols, double p, SplittableRandom rng) {
+        if (p <= 0) return;
+        for (int c = 1; c < cols - 1; c++) {
+            if (rng.nextDouble() < p) clear(bits, c);
+        }
+    }
+
+    private static void clear(long[] bits, int c) {
+        bits[c >>> 6] &= ~(1L << c);
+    }
+
+    private static int find(int[] uf, int x) {
+        while (uf[x] != x) {
+            uf[x] = uf[uf[x]];
+            x = uf[x];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,71 @@
+package maze;
+
+import java.util.SplittableRandom;
+
+/**
+ * Non-animated recursive-backtracker generator for big mazes.
+ * Same algorithm as AnimatedMazeGenerator, but with an int[] stack, a seeded SplittableRandom
+ * and no allocation inside the carve loop, so the same seed always gives the same maze
+ * (including start and goal) and a 10k x 10k maze takes seconds.
+ */
+public class FastMazeGenerator {
+
+    public static void generate(Maze maze, long seed, double extraOpenings) {
+        int rows = maze.rows;
+        int cols = maze.cols;
+        SplittableRandom rng = new SplittableRandom(seed);
+
+        // start with all walls
+        maze.fillWalls();
+
+        int sr = 1;
+        int sc = 1;
+        if (rows > 3 && cols > 3) {
+            sr = 1 + 2 * rng.nextInt(Math.max(1, (rows - 2) / 2));
+            sc = 1 + 2 * rng.nextInt(Math.max(1, (cols - 2) / 2));
+        }
+
+        // every carved cell is pushed once, and only odd cells are carved this way
+        int[] stack = new int[Math.max(1, ((rows - 1) / 2) * ((cols - 1) / 2))];
+        int top = 0;
+        int[] options = new int[4];
+
+        int first = maze.id(sr, sc);
+        maze.setWall(first, false);
+        stack[top++] = first;
+
+        int step = 2 * cols;
+        while (top > 0) {
+            int cur = stack[top - 1];
+            int r = cur / cols;
+            int c = cur - r * cols;
+
+            // unvisited (still walled) cells two steps away, same order as the animated generator
+            int count = 0;
+            if (r + 2 < rows - 1 && maze.isWall(cur + step)) options[count++] = cur + step;
+            if (r - 2 > 0 && maze.isWall(cur - step)) options[count++] = cur - step;
+            if (c + 2 < cols - 1 && maze.isWall(cur + 2)) options[count++] = cur + 2;
+            if (c - 2 > 0 && maze.isWall(cur - 2)) options[count++] = cur - 2;
+
+            if (count == 0) {
+                top--;
+                continue;
+            }
+
+            int next = options[count == 1 ? 0 : rng.nextInt(count)];
+            maze.setWall((cur + next) >>> 1, false);   // the wall in between
+            maze.setWall(next, false);
+            stack[top++] = next;
+        }
+
+        // add a few random openings to increase complexity
+        int extra = (int) (maze.size() * extraOpenings);
+        for (int i = 0; i < extra; i++) {
+            int r = 1 + rng.nextInt(Math.max(1, rows - 2));
+            int c = 1 + rng.nextInt(Math.max(1, cols - 2));
+            maze.setWall(maze.id(r, c), false);
+        }
+
+        maze.placeEndpoints(rng::nextInt);
+    }
+}
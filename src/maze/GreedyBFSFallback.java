@@ -1,78 +1,111 @@
 package maze;
 
-import java.util.*;
-
 /**
  * Greedy + BFS Fallback Algorithm
+ * Heatmap = a score per cell, lower is closer to the goal; unreachable cells score +inf.
  * 1. Greedy: Only move to neighbors with LOWER heatmap score
  * 2. Stuck: When no descending neighbor exists
- * 3. BFS Rescue: Search broadly (no restrictions) until finding better position
+ * 3. Rescue: Best-first expansion of everything seen so far until finding a better position
  * 4. Resume: Continue greedy from rescue point
+ *
+ * Two heatmaps: EXACT is the true BFS distance (cached DistanceField), which walks a shortest
+ * path and never gets stuck but costs a full flood per goal; MANHATTAN ignores walls, costs
+ * nothing up front, and relies on rescues to get out of dead ends. Under EXACT every open cell
+ * but the goal has a descending neighbor, so the rescue machinery below never runs; it is only
+ * exercised by MANHATTAN (SearchType.GREEDY_MANHATTAN).
+ *
+ * The rescue frontier persists across stuck events and every cell enters it once, so all rescues
+ * together expand each open cell at most once: O(open cells) per run. Cells the greedy walk
+ * passes are only queued when a rescue actually starts, so a run that never gets stuck never
+ * touches the heap.
+ *
+ * Each rescue is counted in the context (rescues, rescueExpanded, maxRescue) for SearchMetrics
+ * and emitted as a GreedyRescueEvent when Flight Recorder is recording.
  */
 
 public class GreedyBFSFallback {
 
-    private static final int SAFETY_LIMIT = 100000;
+    public enum Heatmap { EXACT, MANHATTAN }
+
+    public static SearchResult run(Maze maze, SearchContext ctx) {
+        return run(maze, ctx, Heatmap.EXACT);
+    }
+
+    public static SearchResult run(Maze maze, SearchContext ctx, Heatmap heatmap) {
+        return run(maze, ctx, heatmap, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
 
-    public static void run(Maze maze, MazePanel panel) {
-        if (maze == null || panel == null) return;
-        maze.clearAlgorithmData();
+    /**
+     * rescueNodes / rescueNanos bound each single rescue; when one runs out before finding a
+     * better cell, the walk resumes from the best cell on the shared frontier and the next stuck
+     * event picks that frontier up again, so short rescues trade path quality, not completeness.
+     * The context's own limits apply to the whole run on top of that.
+     */
+    public static SearchResult run(Maze maze, SearchContext ctx, Heatmap type, int rescueNodes, long rescueNanos) {
+        if (rescueNodes < 1) throw new IllegalArgumentException("rescueNodes must be positive");
+        if (maze == null || ctx == null) return new SearchResult(null, 0);
 
-        int rows = maze.rows;
-        int cols = maze.cols;
-        Cell start = maze.start;
-        Cell goal = maze.goal;
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
         
-        if (start == null || goal == null) return;
-
-        // Build heatmap (normalized Manhattan distance to goal)
-        double denom = rows + cols;
-        double[][] heatmap = new double[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                heatmap[r][c] = (Math.abs(r - goal.row) + Math.abs(c - goal.col)) / denom;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
+
+        int n = maze.size();
+        int[] heatmap = null;   // null = Manhattan, computed per cell
+        DistanceField field = null;
+        if (type == Heatmap.EXACT) {
+            // wall-aware distance to goal, shared with other queries for the same goal
+            field = DistanceField.of(maze, goal);
+            heatmap = field.dist;
+
+            // Optional: expose heatmap for visualization
+            listener.onHeatmap(field);
+
+            // the field already knows the answer to "is there any path"
+            if (!field.reachable(start)) {
+                ctx.precomputed = field.cells;
+                return new SearchResult(null, 0);
             }
         }
 
-        // Optional: expose heatmap for visualization
-        panel.debugHeatmap = heatmap;
-
-        // Track visited cells globally
-        Set<Cell> globalVisited = new HashSet<>();
-        Map<Cell, Cell> parent = new HashMap<>();
+        // Track visited cells globally via the context's seen stamps (-1 parent = start)
+        ctx.begin(n);
+        if (field != null) ctx.precomputed = field.cells;   // the flood the walk stands on
+        int[] parent = ctx.parent();
+        Rescue rescue = new Rescue(maze, heatmap, goal, ctx, rescueNodes, rescueNanos);
 
-        Cell current = start;
-        parent.put(start, null);
-        globalVisited.add(start);
-        current.frontier = true;
-        panel.repaintPause();
+        int current = start;
+        parent[start] = -1;
+        rescue.walked(start);
+        ctx.generate(current);
+        ctx.frontier(1);   // the walk itself holds one cell; rescues report their heap
 
         int steps = 0;
 
-        // Main loop
-        while (current != null && steps < SAFETY_LIMIT) {
+        // Main loop; terminates because every iteration marks a new cell seen or expands a frontier cell
+        while (current >= 0) {
+            if (ctx.exhausted(steps + rescue.expanded)) return ctx.stopped(steps + rescue.expanded);
             steps++;
 
             // Mark as visited
-            current.visited = true;
-            panel.repaintPause();
+            listener.onVisit(current);
 
             // Check if goal reached
-            if (current.equals(goal)) {
-                reconstructPath(parent, start, goal, panel);
-                return;
+            if (current == goal) {
+                return new SearchResult(reconstructPath(parent, goal, listener), steps + rescue.expanded);
             }
 
-            double currentScore = heatmap[current.row][current.col];
-            List<Cell> neighbors = getNeighbors(maze, current);
+            int currentScore = rescue.score(current);
 
             // Find UNVISITED neighbors with LOWER heatmap score
-            Cell bestGreedy = null;
-            double bestScore = currentScore;
+            int bestGreedy = -1;
+            int bestScore = currentScore;
 
-            for (Cell neighbor : neighbors) {
-                if (!globalVisited.contains(neighbor)) {
-                    double neighborScore = heatmap[neighbor.row][neighbor.col];
+            for (int d = 0; d < 4; d++) {
+                int neighbor = openNeighbor(maze, current, d);
+                if (neighbor != -1 && !ctx.seen(neighbor)) {
+                    int neighborScore = rescue.score(neighbor);
                     if (neighborScore < bestScore) {
                         bestScore = neighborScore;
                         bestGreedy = neighbor;
@@ -81,129 +114,155 @@ public class GreedyBFSFallback {
             }
 
             // CASE A: Greedy can descend
-            if (bestGreedy != null) {
-                parent.put(bestGreedy, current);
-                globalVisited.add(bestGreedy);
+            if (bestGreedy != -1) {
+                parent[bestGreedy] = current;
+                rescue.walked(bestGreedy);
                 current = bestGreedy;
-                current.frontier = true;
-                panel.repaintPause();
+                ctx.generate(current);
             }
-            // CASE B: Stuck - run BFS to find escape route
+            // CASE B: Stuck - expand the shared frontier to find an escape route
             else {
-                Cell rescueTarget = bfsFallback(maze, current, currentScore, 
-                                                heatmap, globalVisited, parent, panel);
-                
-                if (rescueTarget != null) {
-                    current = rescueTarget;
-                } else {
-                    // Truly stuck - no path exists
-                    System.out.println("Algorithm stuck - no valid moves from current position");
-                    break;
-                }
+                current = rescue.escape(currentScore, steps);
             }
         }
 
-        System.out.println("No path found after " + steps + " steps");
+        if (current == Rescue.STOPPED) return ctx.stopped(steps + rescue.expanded);
+        return new SearchResult(null, steps + rescue.expanded);
     }
 
     /**
-     * BFS Fallback: Unrestricted search to find escape
-     * Explores ALL reachable unvisited cells until finding one with better score
+     * Best-first rescue over one frontier that lives for the whole run.
+     * Every seen cell is queued once (keyed by its score) and expanded at most once, so a
+     * rescue never re-floods what earlier rescues or the greedy walk already covered.
      */
-    private static Cell bfsFallback(Maze maze, Cell stuck, double stuckScore,
-                                    double[][] heatmap, Set<Cell> globalVisited,
-                                    Map<Cell, Cell> parent, MazePanel panel) {
-        
-        Queue<Cell> bfsQueue = new LinkedList<>();
-        Set<Cell> bfsVisited = new HashSet<>();
-        Map<Cell, Cell> bfsParent = new HashMap<>();
-        
-        bfsQueue.add(stuck);
-        bfsVisited.add(stuck);
-        bfsParent.put(stuck, null);
-
-        while (!bfsQueue.isEmpty()) {
-            Cell current = bfsQueue.poll();
-            
-            // Visualize BFS exploration
-            if (!current.equals(stuck)) {
-                current.frontier = true;
-                panel.repaintPause();
-            }
+    private static final class Rescue {
+        static final int STOPPED = -2;   // the run's own limits tripped
+        static final int CUT_OFF = -3;   // this rescue's budget ran out
+
+        private final Maze maze;
+        private final int[] heatmap;
+        private final int goalRow, goalCol;
+        private final SearchContext ctx;
+        private final IndexedMinHeap frontier;
+        private final int[] walked;   // cells the walk passed since the last rescue, not yet queued
+        private int walkedSize;
+        private final int maxNodes;
+        private final long maxNanos;
+        int expanded;
+
+        Rescue(Maze maze, int[] heatmap, int goal, SearchContext ctx, int maxNodes, long maxNanos) {
+            this.maze = maze;
+            this.heatmap = heatmap;
+            this.goalRow = maze.row(goal);
+            this.goalCol = maze.col(goal);
+            this.ctx = ctx;
+            this.frontier = ctx.heap();
+            this.walked = ctx.buffer();   // each cell is walked at most once
+            this.maxNodes = maxNodes;
+            this.maxNanos = maxNanos;
+        }
 
-            double currentScore = heatmap[current.row][current.col];
-
-            // Found a better position!
-            if (currentScore < stuckScore && !globalVisited.contains(current)) {
-                // Trace back through BFS to mark path
-                Cell trace = current;
-                while (trace != null && !trace.equals(stuck)) {
-                    Cell bfsP = bfsParent.get(trace);
-                    if (bfsP != null && !globalVisited.contains(trace)) {
-                        parent.put(trace, bfsP);
-                        globalVisited.add(trace);
-                    }
-                    trace = bfsP;
-                }
-                return current;
+        // distance to goal (exact or Manhattan), +inf where the goal can't be reached
+        int score(int cell) {
+            if (heatmap == null) return Math.abs(maze.row(cell) - goalRow) + Math.abs(maze.col(cell) - goalCol);
+            int d = heatmap[cell];
+            return d < 0 ? Integer.MAX_VALUE : d;
+        }
+
+        // the greedy walk reached cell; it joins the frontier lazily, when a rescue starts
+        void walked(int cell) {
+            ctx.markSeen(cell);
+            walked[walkedSize++] = cell;
+        }
+
+        private void discovered(int cell) {
+            ctx.markSeen(cell);
+            frontier.insertOrDecrease(cell, score(cell));
+        }
+
+        // first newly seen cell scoring below stuckScore, or the frontier's best cell if the rescue is
+        // cut off; -1 if the frontier runs out, STOPPED when the run's limits trip
+        int escape(int stuckScore, int steps) {
+            GreedyRescueEvent event = new GreedyRescueEvent();
+            event.begin();
+            for (int i = 0; i < walkedSize; i++) frontier.insertOrDecrease(walked[i], score(walked[i]));
+            walkedSize = 0;
+            ctx.frontier(frontier.size());
+
+            int before = expanded;
+            int next = expand(stuckScore, steps);
+            int size = expanded - before;
+            ctx.rescues++;
+            ctx.rescueExpanded += size;
+            if (size > ctx.maxRescue) ctx.maxRescue = size;
+            event.end();
+            if (event.shouldCommit()) {
+                event.stuckScore = stuckScore;
+                event.expanded = size;
+                event.escaped = next >= 0;
+                event.cutOff = next == CUT_OFF;
+                event.commit();
             }
+            // not empty: a cut-off rescue stops before polling, with cells left to expand
+            return next == CUT_OFF ? frontier.peek() : next;
+        }
 
-            // Expand BFS
-            List<Cell> neighbors = getNeighbors(maze, current);
-            for (Cell neighbor : neighbors) {
-                if (!bfsVisited.contains(neighbor)) {
-                    bfsVisited.add(neighbor);
-                    bfsParent.put(neighbor, current);
-                    bfsQueue.add(neighbor);
-                    neighbor.frontier = true;
-                    panel.repaintPause();
+        // the rescue itself; escape() wraps it with the counters and the JFR event
+        private int expand(int stuckScore, int steps) {
+            int[] parent = ctx.parent();
+            long deadline = maxNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + maxNanos;
+            int polled = 0;   // always expands at least one cell, so cut-off rescues still make progress
+
+            while (!frontier.isEmpty()) {
+                if (ctx.exhausted(steps + expanded)) return STOPPED;
+                if (polled == maxNodes) return CUT_OFF;
+                if ((polled & 255) == 0 && polled > 0 && deadline != Long.MAX_VALUE
+                        && System.nanoTime() - deadline > 0) return CUT_OFF;
+
+                int current = frontier.poll();
+                polled++;
+                expanded++;
+                for (int d = 0; d < 4; d++) {
+                    int neighbor = openNeighbor(maze, current, d);
+                    if (neighbor == -1 || ctx.seen(neighbor)) continue;
+                    parent[neighbor] = current;
+                    discovered(neighbor);
+                    ctx.generate(neighbor);
+                    if (score(neighbor) < stuckScore) {
+                        // may still have unseen neighbors; at most 3 re-queues per cell keeps this O(open cells)
+                        frontier.insertOrDecrease(current, score(current));
+                        ctx.frontier(frontier.size());
+                        return neighbor;
+                    }
                 }
+                ctx.frontier(frontier.size());
             }
+            return -1; // No escape found
         }
-
-        return null; // No escape found
     }
 
 
-    private static void reconstructPath(Map<Cell, Cell> parent, Cell start, 
-                                       Cell goal, MazePanel panel) {
-        List<Cell> path = new ArrayList<>();
-        Cell current = goal;
-
-        while (current != null) {
+    private static int[] reconstructPath(int[] parent, int goal, SearchListener listener) {
+        IntList path = new IntList();
+        for (int current = goal; current != -1; current = parent[current]) {
             path.add(current);
-            current = parent.get(current);
         }
 
-        Collections.reverse(path);
+        path.reverse();
 
         // Animate final path in yellow
-        for (Cell cell : path) {
-            cell.path = true;
-            panel.repaintPause();
+        for (int i = 0; i < path.size(); i++) {
+            listener.onPath(path.get(i));
         }
+        return path.toArray();
     }
 
-    // Get Valid neighbors
-    
-    private static List<Cell> getNeighbors(Maze maze, Cell cell) {
-        List<Cell> neighbors = new ArrayList<>();
-        int r = cell.row;
-        int c = cell.col;
+    // Get valid neighbor in direction order up, down, left, right (-1 if blocked)
 
-        if (r > 0 && !maze.grid[r-1][c].wall) {
-            neighbors.add(maze.grid[r-1][c]);
-        }
-        if (r < maze.rows - 1 && !maze.grid[r+1][c].wall) {
-            neighbors.add(maze.grid[r+1][c]);
-        }
-        if (c > 0 && !maze.grid[r][c-1].wall) {
-            neighbors.add(maze.grid[r][c-1]);
-        }
-        if (c < maze.cols - 1 && !maze.grid[r][c+1].wall) {
-            neighbors.add(maze.grid[r][c+1]);
-        }
+    private static final int[] NEIGHBOR_ORDER = {Maze.UP, Maze.DOWN, Maze.LEFT, Maze.RIGHT};
 
-        return neighbors;
+    private static int openNeighbor(Maze maze, int cell, int i) {
+        int n = maze.neighbor(cell, NEIGHBOR_ORDER[i]);
+        return n != -1 && !maze.isWall(n) ? n : -1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package maze;
+
+import jdk.jfr.*;
+
+/** Flight Recorder event for one GreedyBFSFallback rescue (a stuck greedy walk being dug out). */
+@Name("maze.GreedyRescue")
+@Label("Greedy Rescue")
+@Category({"Maze", "Solver"})
+@Description("Best-first expansion run when the greedy walk has no descending neighbor")
+@StackTrace(false)
+final class GreedyRescueEvent extends Event {
+
+    @Label("Stuck Score")
+    int stuckScore;
+
+    @Label("Expanded")
+    int expanded;
+
+    @Label("Escaped")
+    boolean escaped;
+
+    @Label("Cut Off")
+    @Description("The rescue hit its node or time bound; the walk resumed from the best frontier cell")
+    boolean cutOff;
+}
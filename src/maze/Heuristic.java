@@ -0,0 +1,16 @@
+package maze;
+
+/**
+ * Admissible distance estimate between two cells, used by A*.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    int estimate(Maze maze, int cell, int goal);
+
+    Heuristic MANHATTAN = (maze, cell, goal) ->
+            Math.abs(maze.row(cell) - maze.row(goal)) + Math.abs(maze.col(cell) - maze.col(goal));
+
+    // turns A* into Dijkstra; handy as a baseline
+    Heuristic ZERO = (maze, cell, goal) -> 0;
+}
@@ -0,0 +1,119 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over int ids in [0, capacity) with long keys.
+ * pos[] tracks where each id sits so decreaseKey is O(log n); no boxing anywhere.
+ */
+public class IndexedMinHeap {
+
+    private final int[] heap;   // heap slot -> id
+    private final int[] pos;    // id -> heap slot, -1 if not queued
+    private final long[] key;   // id -> key
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        key = new long[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+
+    public boolean contains(int id) { return pos[id] != -1; }
+
+    public long key(int id) { return key[id]; }
+
+    /** Inserts id, or lowers its key if it is already queued with a larger one. */
+    public void insertOrDecrease(int id, long k) {
+        if (pos[id] == -1) {
+            key[id] = k;
+            heap[size] = id;
+            pos[id] = size;
+            siftUp(size++);
+        } else if (k < key[id]) {
+            key[id] = k;
+            siftUp(pos[id]);
+        }
+    }
+
+    /** Sets id's key whether it goes up or down, inserting id if it isn't queued. */
+    public void insertOrUpdate(int id, long k) {
+        if (pos[id] == -1) {
+            insertOrDecrease(id, k);
+        } else if (k < key[id]) {
+            key[id] = k;
+            siftUp(pos[id]);
+        } else if (k > key[id]) {
+            key[id] = k;
+            siftDown(pos[id]);
+        }
+    }
+
+    /** Drops id from the queue; no-op if it isn't queued. */
+    public void remove(int id) {
+        int i = pos[id];
+        if (i == -1) return;
+        pos[id] = -1;
+        if (i == --size) return;
+        int last = heap[size];
+        heap[i] = last;
+        pos[last] = i;
+        siftDown(i);
+        if (pos[last] == i) siftUp(i);
+    }
+
+    // id with the smallest key, without removing it
+    public int peek() { return heap[0]; }
+
+    public int poll() {
+        int top = heap[0];
+        pos[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        long k = key[id];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            int pid = heap[p];
+            if (key[pid] <= k) break;
+            heap[i] = pid;
+            pos[pid] = i;
+            i = p;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        long k = key[id];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[heap[child]]) child = right;
+            if (key[heap[child]] >= k) break;
+            heap[i] = heap[child];
+            pos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
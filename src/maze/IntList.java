@@ -0,0 +1,53 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Growable int array. Used for paths, stacks and queues of cell ids without boxing.
+ */
+public class IntList {
+
+    private int[] data;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        data = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int v) {
+        if (size == data.length) data = Arrays.copyOf(data, size * 2);
+        data[size++] = v;
+    }
+
+    public int get(int i) {
+        return data[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int t = data[i];
+            data[i] = data[j];
+            data[j] = t;
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
@@ -0,0 +1,134 @@
+package maze;
+
+/**
+ * Jump Point Search for the 4-connected grid (A* over jump points, Manhattan heuristic).
+ *
+ * Canonical order is "horizontal before vertical": a horizontal move may be followed by any
+ * non-reversing move, a vertical move only by more vertical moves unless a horizontal neighbor
+ * is forced (open beside us but blocked beside the previous cell). Horizontal jumps probe up
+ * and down at each cell and stop where either probe finds a jump point, so straight corridor
+ * runs and symmetric detours through open pockets are skipped instead of expanded.
+ * Every jump is a straight line, so edge costs are exact and paths are as short as BFS.
+ */
+public class JumpPointSearch {
+
+    private static final int[] DR = {1, -1, 0, 0};
+    private static final int[] DC = {0, 0, 1, -1};
+
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
+
+        ctx.begin(maze.size());
+        int[] g = ctx.dist();
+        int[] parent = ctx.parent();   // previous jump point
+        IndexedMinHeap open = ctx.heap();
+
+        ctx.markSeen(start);
+        g[start] = 0;
+        parent[start] = -1;
+        open.insertOrDecrease(start, key(0, manhattan(maze, start, goal)));
+        ctx.generate(start);
+        int expanded = 0;
+
+        while (!open.isEmpty()) {
+            if (ctx.exhausted(expanded)) return ctx.stopped(expanded);
+            int cur = open.poll();
+            ctx.markClosed(cur);
+            expanded++;
+
+            if (cur == goal) {
+                return new SearchResult(fillPath(maze, parent, goal, listener), expanded);
+            }
+
+            int r = maze.row(cur), c = maze.col(cur);
+            int p = parent[cur];
+            int dr = p == -1 ? 0 : Integer.signum(r - maze.row(p));
+            int dc = p == -1 ? 0 : Integer.signum(c - maze.col(p));
+
+            for (int d = 0; d < 4; d++) {
+                if (!canonical(maze, r, c, dr, dc, DR[d], DC[d])) continue;
+
+                int jp = jump(maze, r, c, DR[d], DC[d], goal);
+                if (jp == -1) continue;
+
+                boolean fresh = !ctx.seen(jp);
+                int ng = g[cur] + manhattan(maze, cur, jp);
+                if (!fresh && (ctx.closed(jp) || ng >= g[jp])) continue;
+
+                ctx.markSeen(jp);
+                g[jp] = ng;
+                parent[jp] = cur;
+                open.insertOrDecrease(jp, key(ng, manhattan(maze, jp, goal)));
+                if (fresh) ctx.generate(jp);
+            }
+            ctx.frontier(open.size());
+        }
+        return new SearchResult(null, expanded);
+    }
+
+    // may we leave (r,c) in direction (nr,nc) after arriving in direction (dr,dc)?
+    private static boolean canonical(Maze maze, int r, int c, int dr, int dc, int nr, int nc) {
+        if (dr == 0 && dc == 0) return true;             // start: everything
+        if (nr == -dr && nc == -dc) return false;        // never straight back
+        if (dc != 0) return true;                        // after horizontal: straight or either vertical
+        if (nr == dr) return true;                       // after vertical: straight ...
+        return open(maze, r, c + nc) && !open(maze, r - dr, c + nc);   // ... or a forced turn
+    }
+
+    // next jump point from (r,c) in direction (dr,dc), or -1
+    private static int jump(Maze maze, int r, int c, int dr, int dc, int goal) {
+        while (true) {
+            r += dr;
+            c += dc;
+            if (!open(maze, r, c)) return -1;
+            int id = maze.id(r, c);
+            if (id == goal) return id;
+
+            if (dc != 0) {
+                // horizontal: stop here if a vertical jump from this cell leads anywhere
+                if (jump(maze, r, c, 1, 0, goal) != -1 || jump(maze, r, c, -1, 0, goal) != -1) return id;
+            } else {
+                // vertical: forced neighbor on either side
+                if ((open(maze, r, c + 1) && !open(maze, r - dr, c + 1))
+                        || (open(maze, r, c - 1) && !open(maze, r - dr, c - 1))) return id;
+            }
+        }
+    }
+
+    // expand the jump-point chain back into every cell, start->goal
+    private static int[] fillPath(Maze maze, int[] parent, int goal, SearchListener listener) {
+        IntList path = new IntList();
+        path.add(goal);
+        for (int cur = goal; parent[cur] != -1; cur = parent[cur]) {
+            int p = parent[cur];
+            int dr = Integer.signum(maze.row(p) - maze.row(cur));
+            int dc = Integer.signum(maze.col(p) - maze.col(cur));
+            int r = maze.row(cur), c = maze.col(cur);
+            do {
+                r += dr;
+                c += dc;
+                path.add(maze.id(r, c));
+            } while (maze.id(r, c) != p);
+        }
+        path.reverse();
+        for (int i = 0; i < path.size(); i++) listener.onPath(path.get(i));
+        return path.toArray();
+    }
+
+    private static boolean open(Maze maze, int r, int c) {
+        return maze.inBounds(r, c) && !maze.isWall(r, c);
+    }
+
+    private static int manhattan(Maze maze, int a, int b) {
+        return Math.abs(maze.row(a) - maze.row(b)) + Math.abs(maze.col(a) - maze.col(b));
+    }
+
+    // order by f = g + h, then by smaller h
+    private static long key(int g, int h) {
+        return ((long) (g + h) << 32) | h;
+    }
+}
@@ -0,0 +1,336 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * The maze contracted to its junctions and dead ends.
+ *
+ * Every open cell with exactly two open neighbors is a corridor cell and disappears; the
+ * remaining cells are nodes, joined by one weighted edge per corridor (weight = cells walked).
+ * The graph is stored in CSR arrays: edges of node i are offsets[i] .. offsets[i+1]-1, each with
+ * a target node, a length and the direction it leaves node i in, which is all that's needed
+ * to walk the corridor again when a cell path is asked for.
+ *
+ * Queries run A* over nodes (Manhattan to the goal cell, which is consistent because a corridor
+ * is never shorter than the Manhattan distance between its ends). Start and goal may sit in
+ * the middle of a corridor; they are attached to the corridor's end nodes at query time.
+ */
+public class JunctionGraph {
+
+    public final Maze maze;
+    public final int version;        // maze.version() at build time
+    public final int openCells;      // cells scanned to build it; reported as precomputed work
+
+    private final int[] nodeCell;    // node -> cell id, ascending
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final byte[] dirs;
+
+    private JunctionGraph(Maze maze, int openCells, int[] nodeCell, int[] offsets, int[] targets, int[] weights,
+                          byte[] dirs) {
+        this.maze = maze;
+        this.version = maze.version();
+        this.openCells = openCells;
+        this.nodeCell = nodeCell;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.dirs = dirs;
+    }
+
+    /**
+     * Graph for maze, rebuilt only if the maze changed since the cached one was built.
+     * The graph is cached on the maze, so only callers asking for the same maze wait for a build.
+     */
+    public static JunctionGraph of(Maze maze) {
+        JunctionGraph g = maze.junctionGraph;
+        if (g != null && g.version == maze.version()) return g;
+        synchronized (maze.junctionGraphLock) {
+            g = maze.junctionGraph;
+            if (g == null || g.version != maze.version()) {
+                g = build(maze);
+                maze.junctionGraph = g;
+            }
+            return g;
+        }
+    }
+
+    // Solver entry point (SearchType.JUNCTION_GRAPH)
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+        return of(maze).solve(ctx);
+    }
+
+    public static JunctionGraph build(Maze maze) {
+        int n = maze.size();
+        IntList nodes = new IntList();
+        int open = 0;
+        for (int id = 0; id < n; id++) {
+            if (maze.isWall(id)) continue;
+            open++;
+            if (degree(maze, id) != 2) nodes.add(id);
+        }
+        int[] nodeCell = nodes.toArray();
+
+        int[] offsets = new int[nodeCell.length + 1];
+        IntList tgt = new IntList(), wgt = new IntList(), dir = new IntList();
+        for (int i = 0; i < nodeCell.length; i++) {
+            for (int d = 0; d < 4; d++) {
+                int nb = maze.neighbor(nodeCell[i], d);
+                if (nb < 0 || maze.isWall(nb)) continue;
+                long end = walk(maze, nodeCell[i], d, -1, null);
+                if (endCell(end) == -1) continue;   // corridor looping back to the same node never helps
+                int j = Arrays.binarySearch(nodeCell, endCell(end));
+                if (j == i) continue;
+                tgt.add(j);
+                wgt.add(endLength(end));
+                dir.add(d);
+            }
+            offsets[i + 1] = tgt.size();
+        }
+
+        byte[] dirs = new byte[dir.size()];
+        for (int e = 0; e < dirs.length; e++) dirs[e] = (byte) dir.get(e);
+        return new JunctionGraph(maze, open, nodeCell, offsets, tgt.toArray(), wgt.toArray(), dirs);
+    }
+
+    public int nodeCount() { return nodeCell.length; }
+    public int edgeCount() { return targets.length; }
+
+    /** Node index of a cell, or -1 for walls and corridor cells. */
+    public int node(int cell) {
+        int i = Arrays.binarySearch(nodeCell, cell);
+        return i >= 0 ? i : -1;
+    }
+
+    /** A shortest route (or the lack of one); cells are only produced when Route.cells() is called. */
+    public class Route {
+        public final int start, goal;
+        public final int length;  // steps, -1 if there is no route
+        final int startDir;      // direction from start to the first node, -1 if start is a node
+        final int goalDir;       // direction from goal to the last node, -1 if goal is a node
+        final int[] edges;       // CSR edge indices between consecutive nodes
+        final int firstNode;     // -1 for the same-corridor case, where startDir leads straight to goal
+        public final int expanded;
+        public final SearchResult.Status status;
+
+        Route(int start, int goal, int length, int startDir, int goalDir, int firstNode, int[] edges, int expanded) {
+            this(start, goal, length, startDir, goalDir, firstNode, edges, expanded,
+                    length >= 0 ? SearchResult.Status.FOUND : SearchResult.Status.NOT_FOUND);
+        }
+
+        // no route because the context's limits stopped the search
+        Route(int start, int goal, int expanded, SearchResult.Status status) {
+            this(start, goal, -1, -1, -1, -1, new int[0], expanded, status);
+        }
+
+        private Route(int start, int goal, int length, int startDir, int goalDir, int firstNode, int[] edges,
+                      int expanded, SearchResult.Status status) {
+            this.start = start;
+            this.goal = goal;
+            this.length = length;
+            this.startDir = startDir;
+            this.goalDir = goalDir;
+            this.firstNode = firstNode;
+            this.edges = edges;
+            this.expanded = expanded;
+            this.status = status;
+        }
+
+        public boolean found() { return length >= 0; }
+
+        public int nodes() { return firstNode == -1 ? 0 : edges.length + 1; }
+
+        /** Expands the route into cell ids, start->goal; null if there is no route. */
+        public int[] cells() {
+            if (!found()) return null;
+            IntList out = new IntList(length + 1);
+            out.add(start);
+            if (firstNode == -1) {
+                if (start != goal) walk(maze, start, startDir, goal, out);
+                return out.toArray();
+            }
+            if (startDir != -1) walk(maze, start, startDir, -1, out);
+            int at = nodeCell[firstNode];
+            for (int e : edges) {
+                walk(maze, at, dirs[e], -1, out);
+                at = nodeCell[targets[e]];
+            }
+            if (goalDir != -1) {
+                // walked from the goal outward, so append it reversed (dropping the node already added)
+                IntList tail = new IntList();
+                tail.add(goal);
+                walk(maze, goal, goalDir, -1, tail);
+                for (int i = tail.size() - 2; i >= 0; i--) out.add(tail.get(i));
+            }
+            return out.toArray();
+        }
+    }
+
+    public SearchResult solve(SearchContext ctx) {
+        Route route = route(ctx);
+        if (!route.found()) return new SearchResult(null, route.expanded, route.status);
+        int[] cells = route.cells();
+        for (int c : cells) ctx.listener.onPath(c);
+        return new SearchResult(cells, route.expanded);
+    }
+
+    /** Shortest route from ctx.start to ctx.goal. */
+    public Route route(SearchContext ctx) {
+        int start = ctx.start, goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0 || maze.isWall(start) || maze.isWall(goal))
+            return new Route(start, goal, -1, -1, -1, -1, new int[0], 0);
+        if (start == goal) return new Route(start, goal, 0, -1, -1, -1, new int[0], 0);
+
+        int v = nodeCell.length;
+        ctx.begin(v);
+        ctx.precomputed = openCells;
+        int[] g = ctx.dist();
+        int[] parent = ctx.parent();
+        int[] via = ctx.buffer();        // edge used to reach a node; -1 for source nodes
+        int[] srcDir = ctx.bufferBack(); // for source nodes: direction taken from start, -1 if start itself
+        IndexedMinHeap open = ctx.heap();
+
+        int best = Integer.MAX_VALUE;
+        int directDir = -1;
+
+        // sources: start itself, or both ends of its corridor
+        int sNode = node(start);
+        if (sNode >= 0) {
+            seed(ctx, open, sNode, 0, -1, goal);
+        } else {
+            for (int d = 0; d < 4; d++) {
+                int nb = maze.neighbor(start, d);
+                if (nb < 0 || maze.isWall(nb)) continue;
+                long end = walk(maze, start, d, goal, null);
+                if (endCell(end) == goal) {
+                    if (endLength(end) < best) { best = endLength(end); directDir = d; }
+                } else if (endCell(end) != -1) {
+                    seed(ctx, open, node(endCell(end)), endLength(end), d, goal);
+                }
+            }
+        }
+
+        // targets: goal itself, or both ends of its corridor
+        int[] tNode = new int[2], tLen = new int[2], tDir = new int[2];
+        int targetsN = 0;
+        int gNode = node(goal);
+        if (gNode >= 0) {
+            tNode[0] = gNode;
+            tDir[0] = -1;
+            targetsN = 1;
+        } else {
+            for (int d = 0; d < 4 && targetsN < 2; d++) {
+                int nb = maze.neighbor(goal, d);
+                if (nb < 0 || maze.isWall(nb)) continue;
+                long end = walk(maze, goal, d, -1, null);
+                if (endCell(end) == -1) continue;
+                tNode[targetsN] = node(endCell(end));
+                tLen[targetsN] = endLength(end);
+                tDir[targetsN++] = d;
+            }
+        }
+
+        int bestTarget = -1;
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            if ((int) (open.key(open.peek()) >>> 32) >= best) break;   // f can't beat best any more
+            if (ctx.exhausted(expanded)) return new Route(start, goal, expanded, ctx.stopped(expanded).status);
+            int u = open.poll();
+            ctx.markClosed(u);
+            expanded++;
+
+            for (int k = 0; k < targetsN; k++) {
+                if (tNode[k] == u && g[u] + tLen[k] < best) {
+                    best = g[u] + tLen[k];
+                    bestTarget = k;
+                }
+            }
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = targets[e];
+                int ng = g[u] + weights[e];
+                boolean fresh = !ctx.seen(w);
+                if (!fresh && (ctx.closed(w) || ng >= g[w])) continue;
+                ctx.markSeen(w);
+                g[w] = ng;
+                parent[w] = u;
+                via[w] = e;
+                open.insertOrDecrease(w, key(ng, h(w, goal)));
+                if (fresh) ctx.generate(nodeCell[w]);
+            }
+            ctx.frontier(open.size());
+        }
+        if (best == Integer.MAX_VALUE) return new Route(start, goal, -1, -1, -1, -1, new int[0], expanded);
+        if (bestTarget == -1) return new Route(start, goal, best, directDir, -1, -1, new int[0], expanded);
+
+        // node chain back from the target to its source
+        IntList chain = new IntList();
+        int u = tNode[bestTarget];
+        while (parent[u] != -1) {
+            chain.add(via[u]);
+            u = parent[u];
+        }
+        chain.reverse();
+        return new Route(start, goal, best, srcDir[u], tDir[bestTarget], u, chain.toArray(), expanded);
+    }
+
+    private void seed(SearchContext ctx, IndexedMinHeap open, int node, int dist, int dir, int goal) {
+        int[] g = ctx.dist();
+        if (ctx.seen(node) && g[node] <= dist) return;
+        ctx.markSeen(node);
+        g[node] = dist;
+        ctx.parent()[node] = -1;
+        ctx.buffer()[node] = -1;
+        ctx.bufferBack()[node] = dir;
+        open.insertOrDecrease(node, key(dist, h(node, goal)));
+        ctx.generate(nodeCell[node]);
+    }
+
+    private int h(int node, int goal) {
+        int c = nodeCell[node];
+        return Math.abs(maze.row(c) - maze.row(goal)) + Math.abs(maze.col(c) - maze.col(goal));
+    }
+
+    private static long key(int g, int h) {
+        return ((long) (g + h) << 32) | h;
+    }
+
+    private static int degree(Maze maze, int id) {
+        int deg = 0;
+        for (int d = 0; d < 4; d++) {
+            int nb = maze.neighbor(id, d);
+            if (nb >= 0 && !maze.isWall(nb)) deg++;
+        }
+        return deg;
+    }
+
+    /**
+     * Follows the corridor leaving cell in direction d until it reaches a node (or stop).
+     * Stepped cells are appended to out when it's non-null. Returns (length << 32 | end cell);
+     * end cell is -1 if the corridor is a closed loop that leads back to where it started.
+     */
+    private static long walk(Maze maze, int cell, int d, int stop, IntList out) {
+        int prev = cell;
+        int cur = maze.neighbor(cell, d);
+        int len = 1;
+        while (true) {
+            if (out != null) out.add(cur);
+            if (cur == stop || degree(maze, cur) != 2) break;
+            int next = -1;
+            for (int dd = 0; dd < 4; dd++) {
+                int nb = maze.neighbor(cur, dd);
+                if (nb >= 0 && nb != prev && !maze.isWall(nb)) { next = nb; break; }
+            }
+            prev = cur;
+            cur = next;
+            len++;
+            if (cur == cell) return ((long) len << 32) | 0xFFFFFFFFL;
+        }
+        return ((long) len << 32) | (cur & 0xFFFFFFFFL);
+    }
+
+    private static int endCell(long end) { return (int) end; }
+    private static int endLength(long end) { return (int) (end >>> 32); }
+}
@@ -1,63 +1,216 @@
 package maze;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.LongBuffer;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.function.IntUnaryOperator;
 
+/**
+ * Static maze: one wall bit per cell packed into 64-bit words.
+ * Words live in a long[] or, for mazes opened with MazeFile, straight in a memory-mapped file.
+ * Cells are addressed by a flat id = row * cols + col.
+ * Search state (visited, parents, frontier colouring) lives with the solver, not here.
+ */
 public class Maze {
 
-    public int rows, cols;
-    public Cell[][] grid;
+    // neighbor directions for neighbor(id, dir)
+    public static final int DOWN = 0, UP = 1, RIGHT = 2, LEFT = 3;
 
-    public Cell start;
-    public Cell goal;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    public final int rows, cols;
+    private final int size;
+    private final long[] walls;       // bit set = wall; null when mapped
+    private final LongBuffer mapped;  // file-backed words (MazeFile), null for in-memory mazes
+
+    public int start;
+    public int goal;
+    public long seed;   // seed of the last generate(); stored in maze files
+
+    private int version;   // bumped on every wall change, so caches can tell the maze was edited
+    private long fingerprint;
+    private volatile int fingerprintVersion = -1;   // written after fingerprint, so readers see a matching pair
+
+    // derived structures are cached on the maze itself, so they are collected together with it
+    volatile JunctionGraph junctionGraph;
+    final Object junctionGraphLock = new Object();
+    final DistanceField.Cache distanceFields = new DistanceField.Cache();
 
     public Maze(int rows, int cols) {
         // ensure odd dimensions for nice carving 
         this.rows = (rows % 2 == 0) ? rows + 1 : rows;
         this.cols = (cols % 2 == 0) ? cols + 1 : cols;
 
-        grid = new Cell[this.rows][this.cols];
+        long cells = (long) this.rows * this.cols;
+        if (cells > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("maze too large for int cell ids: " + this.rows + "x" + this.cols);
+        size = (int) cells;
 
-        // initialize grid — default wall = true
-        for (int r = 0; r < this.rows; r++) {
-            for (int c = 0; c < this.cols; c++) {
-                grid[r][c] = new Cell(r, c, true);
-            }
-        }
+        // default wall = true
+        walls = new long[(size + 63) >>> 6];
+        mapped = null;
+        fillWalls();
 
         // set temporary start/goal (will be adjusted after generation)
-        start = grid[1][1];
-        goal = grid[this.rows - 2][this.cols - 2];
+        start = id(1, 1);
+        goal = id(this.rows - 2, this.cols - 2);
+    }
+
+    // file-backed maze; dimensions are taken as-is from the file header
+    Maze(int rows, int cols, LongBuffer mappedWalls) {
+        this.rows = rows;
+        this.cols = cols;
+        this.size = rows * cols;
+        this.walls = null;
+        this.mapped = mappedWalls;
     }
 
-    //Generate (animated) — calls AnimatedMazeGenerator.generate(this). Call from a background thread so Swing can repaint.
-   
+    // randomized DFS via AnimatedMazeGenerator; see generate(seed, extra, log) to record it for playback
     public void generate() {
-        AnimatedMazeGenerator.generate(this);
+        generate(new Random().nextLong(), AnimatedMazeGenerator.DEFAULT_EXTRA_OPENINGS);
+    }
+
+    // reproducible variant: same seed and density give the same maze, start and goal
+    public void generate(long seed, double extraOpenings) {
+        generate(seed, extraOpenings, null);
+    }
+
+    // same, logging every carved cell so a Playback can replay the generation
+    public void generate(long seed, double extraOpenings, SearchEventLog log) {
+        this.seed = seed;
+        Random rng = new Random(seed);
+        AnimatedMazeGenerator.generate(this, rng, extraOpenings, log);
+        placeEndpoints(rng::nextInt);
+        if (log != null && rows > 2) log.append(id(0, 1), SearchEventLog.CARVE);   // the doorway
+    }
+
+    // non-animated, allocation-free generation (FastMazeGenerator); deterministic per seed
+    public void generateFast(long seed, double extraOpenings) {
+        this.seed = seed;
+        FastMazeGenerator.generate(this, seed, extraOpenings);
+    }
+
+    // tiled Kruskal on the common pool (ParallelMazeGenerator); same maze for a seed at any thread count
+    public void generateParallel(long seed, double extraOpenings) {
+        this.seed = seed;
+        ParallelMazeGenerator.generate(this, seed, extraOpenings);
+    }
+
+    // nextInt(bound) comes from whichever RNG the generator used, so placement stays reproducible
+    void placeEndpoints(IntUnaryOperator nextInt) {
         // after generation ensure start/goal are open and placed
-        start = grid[1][1];
-        start.wall = false;
+        start = id(1, 1);
+        setWall(start, false);
         // carve doorway to border 
-        if (rows > 2) grid[0][1].wall = false;
+        if (rows > 2) setWall(id(0, 1), false);
 
         // place a goal somewhere in bottom-right quadrant that's open
-        Random rng = new Random();
-        int r, c;
+        int r, c, tries = 0;
         do {
-            r = rows/2 + rng.nextInt(Math.max(1, rows/2 - 1));
-            c = cols/2 + rng.nextInt(Math.max(1, cols/2 - 1));
-        } while (grid[r][c].wall);
-        goal = grid[r][c];
-    }
-
-    public void clearAlgorithmData() {
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Cell cell = grid[r][c];
-                cell.frontier = false;
-                cell.path = false;
-                cell.visited = false;
-                cell.parent = null;
-            }
+            r = rows/2 + nextInt.applyAsInt(Math.max(1, rows/2 - 1));
+            c = cols/2 + nextInt.applyAsInt(Math.max(1, cols/2 - 1));
+            // unlucky or impossible? check once that the quadrant has an open cell at all
+            if (++tries == 1024 && !quadrantHasOpenCell())
+                throw new IllegalStateException("no open cell to place the goal in a " + rows + "x" + cols + " maze");
+        } while (isWall(r, c));
+        goal = id(r, c);
+    }
+
+    // the cells placeEndpoints can draw the goal from
+    private boolean quadrantHasOpenCell() {
+        for (int r = rows/2; r < rows/2 + Math.max(1, rows/2 - 1); r++)
+            for (int c = cols/2; c < cols/2 + Math.max(1, cols/2 - 1); c++)
+                if (!isWall(r, c)) return true;
+        return false;
+    }
+
+    public int size() { return size; }
+
+    public int id(int r, int c) { return r * cols + c; }
+    public int row(int id) { return id / cols; }
+    public int col(int id) { return id % cols; }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && c >= 0 && r < rows && c < cols;
+    }
+
+    public boolean isWall(int id) {
+        return (word(id >>> 6) & (1L << id)) != 0;
+    }
+
+    public boolean isWall(int r, int c) {
+        return isWall(id(r, c));
+    }
+
+    public void setWall(int id, boolean wall) {
+        int i = id >>> 6;
+        long w = wall ? word(i) | 1L << id : word(i) & ~(1L << id);
+        if (walls != null) walls[i] = w;
+        else mapped.put(i, w);   // throws ReadOnlyBufferException on a read-only mapping
+        version++;
+    }
+
+    public int version() { return version; }
+
+    /** 64-bit content hash of the dimensions and wall grid; recomputed only after the maze changes. */
+    public long fingerprint() {
+        if (fingerprintVersion != version) {
+            int v = version;
+            long h = mix(((long) rows << 32) ^ cols);
+            for (int i = 0; i < wordCount(); i++) h = mix(h ^ word(i)) + i;
+            fingerprint = h;
+            fingerprintVersion = v;
+        }
+        return fingerprint;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // clears a wall bit while other threads may be clearing bits in the same word (parallel generators)
+    void openConcurrent(int id) {
+        if (walls != null) {
+            WORDS.getAndBitwiseAnd(walls, id >>> 6, ~(1L << id));
+            version++;   // racy, but any increment is enough to mark the maze as changed
+        } else {
+            synchronized (this) { setWall(id, false); }
+        }
+    }
+
+    // number of non-wall cells; padding bits past size are always set, so they count as walls
+    public int openCells() {
+        long wallBits = 0;
+        for (int i = 0; i < wordCount(); i++) wallBits += Long.bitCount(word(i));
+        return (int) ((long) wordCount() * 64 - wallBits);
+    }
+
+    public void fillWalls() {
+        if (walls != null) Arrays.fill(walls, -1L);
+        else for (int i = 0; i < wordCount(); i++) mapped.put(i, -1L);
+        version++;
+    }
+
+    // raw wall words, 64 cells each (bit i of word w is cell w*64 + i)
+    int wordCount() { return (size + 63) >>> 6; }
+
+    long word(int i) {
+        return walls != null ? walls[i] : mapped.get(i);
+    }
+
+    /** Adjacent cell id in the given direction, or -1 off the grid. */
+    public int neighbor(int id, int dir) {
+        switch (dir) {
+            case DOWN:  return id < size - cols ? id + cols : -1;
+            case UP:    return id >= cols ? id - cols : -1;
+            case RIGHT: return (id + 1) % cols != 0 ? id + 1 : -1;
+            case LEFT:  return id % cols != 0 ? id - 1 : -1;
+            default:    return -1;
         }
     }
 }
@@ -5,6 +5,11 @@ import java.awt.*;
 
 public class MazeApp {
 
+    // speed slider 0..100 -> 10 .. 100000 events per second
+    private static double eventsPerSecond(int slider) {
+        return Math.pow(10, 1 + slider / 25.0);
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             // create data
@@ -22,8 +27,8 @@ public class MazeApp {
             JButton generateBtn = new JButton("Generate Maze");
             JComboBox<SearchType> algoBox = new JComboBox<>(SearchType.values());
             JButton runBtn = new JButton("Run");
+            JButton stopBtn = new JButton("Stop");
             JButton clearBtn = new JButton("Clear Path");
-            JSlider speedSlider = new JSlider(2, 60, 12); // ms delay control
             JCheckBox heatmapToggle = new JCheckBox("Show Heatmap");
             heatmapToggle.addActionListener(e -> {
                 panel.showHeatmap = heatmapToggle.isSelected();
@@ -37,62 +42,90 @@ public class MazeApp {
             top.add(new JLabel("Algorithm:"));
             top.add(algoBox);
             top.add(runBtn);
+            top.add(stopBtn);
             top.add(clearBtn);
-            top.add(new JLabel("Speed:"));
-            top.add(speedSlider);
+
+            // playback controls: replay speed, pause, seek, skip to end
+            Playback playback = new Playback(panel);
+            JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            JSlider speedSlider = new JSlider(0, 100, 25); // replay rate, 10 .. 100k events/s (log scale)
+            JButton pauseBtn = new JButton("Pause");
+            JSlider seekSlider = new JSlider(0, 1000, 0);
+            JButton ffBtn = new JButton(">>");
+            bottom.add(new JLabel("Speed:"));
+            bottom.add(speedSlider);
+            bottom.add(pauseBtn);
+            bottom.add(seekSlider);
+            bottom.add(ffBtn);
+
+            // zoom (ctrl + wheel on the maze does the same around the mouse)
+            JButton zoomOutBtn = new JButton("-");
+            JButton zoomInBtn = new JButton("+");
+            JButton fitBtn = new JButton("Fit");
+            bottom.add(new JLabel("Zoom:"));
+            bottom.add(zoomOutBtn);
+            bottom.add(zoomInBtn);
+            bottom.add(fitBtn);
 
             frame.add(top, BorderLayout.NORTH);
             frame.add(new JScrollPane(panel), BorderLayout.CENTER);
+            frame.add(bottom, BorderLayout.SOUTH);
 
             frame.pack();
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
 
             // wire actions
-            // generate in background
-            generateBtn.addActionListener(e -> {
-                new Thread(() -> {
-                    AnimatedMazeGenerator.panel = panel;
-                    AnimatedMazeGenerator.carveDelay = Math.max(1, 60 - speedSlider.getValue());
-                    maze.generate();
-                }).start();
-            });
+            generateBtn.addActionListener(e -> AnimatedMazeGenerator.generate(maze, playback));
 
-            // run selected algorithm in background
+            // run selected algorithm in background; playback replays its log
             runBtn.addActionListener(e -> {
                 SearchType sel = (SearchType) algoBox.getSelectedItem();
-                AnimatedMazeGenerator.panel = panel;
-                // adjust delays based on speed slider
-                int delay = Math.max(1, 60 - speedSlider.getValue());
-                AnimatedMazeGenerator.carveDelay = delay;
-                panel.repaint(); // ensure current state visible
-
-                if (sel == SearchType.BFS) AnimatedMazeGenerator.runBFS(maze, panel);
-                else if (sel == SearchType.DFS) AnimatedMazeGenerator.runDFS(maze, panel);
-                else if (sel == SearchType.EXPERIMENTAL_OPTIMISTIC) AnimatedMazeGenerator.runOptimistic(maze, panel);
-                else if (sel == SearchType.GREEDY_HEATMAP) AnimatedMazeGenerator.runGreedyHeatmap(maze, panel);
-
-
+                AnimatedMazeGenerator.run(sel, maze, playback);
             });
 
+            stopBtn.addActionListener(e -> AnimatedMazeGenerator.cancelRun());
+
             // clear path states (re-run search without regen)
             clearBtn.addActionListener(e -> {
-                maze.clearAlgorithmData();
+                AnimatedMazeGenerator.cancelRun();
+                playback.stop();
+                panel.clearMarks();
                 panel.repaint();
             });
 
             // update speed live
-            speedSlider.addChangeListener(ev -> {
-                int delay = Math.max(1, 60 - speedSlider.getValue());
-                AnimatedMazeGenerator.carveDelay = delay;
+            playback.setRate(eventsPerSecond(speedSlider.getValue()));
+            speedSlider.addChangeListener(ev -> playback.setRate(eventsPerSecond(speedSlider.getValue())));
+
+            pauseBtn.addActionListener(e -> {
+                if (playback.isPaused()) playback.resume();
+                else playback.pause();
+                pauseBtn.setText(playback.isPaused() ? "Play" : "Pause");
+            });
+
+            ffBtn.addActionListener(e -> playback.fastForward());
+
+            zoomOutBtn.addActionListener(e -> panel.setZoom(panel.getZoom() / 1.5));
+            zoomInBtn.addActionListener(e -> panel.setZoom(panel.getZoom() * 1.5));
+            fitBtn.addActionListener(e -> panel.zoomToFit());
+
+            // the seek slider follows playback, and seeks when the user drags it
+            seekSlider.addChangeListener(ev -> {
+                SearchEventLog log = playback.log();
+                if (seekSlider.getValueIsAdjusting() && log != null) {
+                    playback.seek(log.size() * seekSlider.getValue() / 1000);
+                }
+            });
+            playback.setOnFrame(() -> {
+                SearchEventLog log = playback.log();
+                if (!seekSlider.getValueIsAdjusting() && log != null && log.size() > 0) {
+                    seekSlider.setValue((int) (playback.position() * 1000 / log.size()));
+                }
             });
 
             // initial generation
-            new Thread(() -> {
-                AnimatedMazeGenerator.panel = panel;
-                AnimatedMazeGenerator.carveDelay = Math.max(1, 60 - speedSlider.getValue());
-                maze.generate();
-            }).start();
+            AnimatedMazeGenerator.generate(maze, playback);
         });
     }
 }
@@ -0,0 +1,174 @@
+package maze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary maze files, read through FileChannel.map so opening is O(1) and pages load lazily.
+ *
+ * Layout (little-endian):
+ *   0  int  magic 'MAZE'
+ *   4  int  version (1)
+ *   8  int  rows
+ *  12  int  cols
+ *  16  int  start cell id
+ *  20  int  goal cell id
+ *  24  long seed
+ *  32  wall bits, one per cell id, LSB first, padded with 1s to a whole 64-bit word
+ *
+ * The bit area is exactly Maze's in-memory word layout, so a loaded Maze reads walls
+ * straight from the mapping without copying. Cell ids are ints, so files are limited
+ * to Integer.MAX_VALUE cells (about 256 MB of wall bits).
+ */
+public class MazeFile {
+
+    public static final int MAGIC = 0x4D415A45;   // "MAZE"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+
+    public static void save(Maze maze, Path path) throws IOException {
+        int words = maze.wordCount();
+        long total = HEADER_BYTES + (long) words * 8;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION)
+               .putInt(maze.rows).putInt(maze.cols)
+               .putInt(maze.start).putInt(maze.goal)
+               .putLong(maze.seed);
+            LongBuffer bits = buf.asLongBuffer();
+            for (int i = 0; i < words; i++) bits.put(i, maze.word(i));
+            buf.force();
+        }
+    }
+
+    /**
+     * Streaming writer for generators that produce one row at a time (EllerMazeGenerator).
+     * Rows are bit-packed and written sequentially through a small buffer; the header is
+     * filled in on close once the row count is known. Start is (1,1), goal (rows-2, cols-2).
+     */
+    public static class RowWriter implements MazeRowSink, Closeable {
+
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private final int cols;
+        private final long seed;
+        private long rows;
+        private long acc;      // pending bits, LSB first
+        private int accBits;
+
+        public RowWriter(Path path, int cols, long seed) throws IOException {
+            this.ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.cols = cols;
+            this.seed = seed;
+            ch.position(HEADER_BYTES);
+        }
+
+        @Override
+        public void row(long r, long[] bits) throws IOException {
+            if (r != rows) throw new IOException("rows must be written in order: expected " + rows + ", got " + r);
+            // refuse the row that would overflow, so close() still writes a valid header for the rest
+            if ((rows + 1) * cols > Integer.MAX_VALUE)
+                throw new IOException("maze of " + (rows + 1) + "x" + cols + " exceeds int cell ids");
+            for (int c = 0; c < cols; c += 64) {
+                int len = Math.min(64, cols - c);
+                long v = bits[c >>> 6];
+                if (len < 64) v &= (1L << len) - 1;
+                put(v, len);
+            }
+            rows++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (accBits > 0) emit(acc | (-1L << accBits));   // pad the last word with walls
+                flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION)
+                      .putInt((int) rows).putInt(cols)
+                      .putInt(cols + 1).putInt((int) ((rows - 2) * cols + cols - 2))
+                      .putLong(seed)
+                      .flip();
+                ch.write(header, 0);
+            } finally {
+                ch.close();
+            }
+        }
+
+        // append the low len bits of v (1..64)
+        private void put(long v, int len) throws IOException {
+            acc |= v << accBits;
+            int total = accBits + len;
+            if (total >= 64) {
+                emit(acc);
+                acc = accBits == 0 ? 0 : v >>> (64 - accBits);
+                total -= 64;
+            }
+            accBits = total;
+        }
+
+        private void emit(long word) throws IOException {
+            if (!buf.hasRemaining()) flush();
+            buf.putLong(word);
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+    }
+
+    /** Opens read-only; setWall/generate on the result throw ReadOnlyBufferException. */
+    public static Maze open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /** writable = true maps READ_WRITE, so wall edits go straight to the file. */
+    public static Maze open(Path path, boolean writable) throws IOException {
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        try (FileChannel ch = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long fileSize = ch.size();
+            if (fileSize < HEADER_BYTES) throw new IOException(path + ": not a maze file (too short)");
+
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buf = ch.map(mode, 0, fileSize);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buf.getInt(0) != MAGIC) throw new IOException(path + ": not a maze file (bad magic)");
+            int version = buf.getInt(4);
+            if (version != VERSION) throw new IOException(path + ": unsupported maze file version " + version);
+
+            int rows = buf.getInt(8);
+            int cols = buf.getInt(12);
+            long cells = (long) rows * cols;
+            if (rows <= 0 || cols <= 0 || cells > Integer.MAX_VALUE)
+                throw new IOException(path + ": bad dimensions " + rows + "x" + cols);
+            long words = (cells + 63) >>> 6;
+            if (fileSize < HEADER_BYTES + words * 8) throw new IOException(path + ": truncated wall data");
+
+            buf.position(HEADER_BYTES);
+            Maze maze = new Maze(rows, cols, buf.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+            maze.start = buf.getInt(16);
+            maze.goal = buf.getInt(20);
+            if (maze.start < 0 || maze.start >= cells || maze.goal < 0 || maze.goal >= cells)
+                throw new IOException(path + ": start " + maze.start + " or goal " + maze.goal + " outside the maze");
+            maze.seed = buf.getLong(24);
+            return maze;
+        }
+    }
+}
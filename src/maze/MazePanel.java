@@ -2,34 +2,153 @@ package maze;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 /**
  * MazePanel: draws maze grid, start/goal, frontier and final path.
+ * Frontier/path marks are kept here per cell id (replayed by a Playback), not in the maze.
  * Also supports a colored heatmap overlay (blue -> red) via debugHeatmap.
+ *
+ * Rendering keeps one RGB pixel per cell in a BufferedImage. mark() only queues the cell; the
+ * next paint recolors the queued cells from lookup tables and blits the visible part of the image
+ * scaled up in one drawImage, with grid lines only over the visible cells. Anything that changes
+ * every cell (maze edits, a new heatmap, the heatmap toggle, big seeks) triggers one full recolor.
+ *
+ * Zoom is any number of pixels per cell. Below one pixel per cell the panel draws from a mip
+ * pyramid instead: level k has one entry per 2^k x 2^k block holding its wall and visited
+ * fractions and whether the path crosses it, so a pixel shows the whole block rather than one
+ * sampled cell. The pyramid is built the first time it is needed and then kept current by
+ * walking each recolored cell's chain of blocks (stopping early once a block is unchanged).
+ * The heatmap overlay is only drawn at cell resolution.
  */
 public class MazePanel extends JPanel {
+
+    // mark bits
+    public static final byte FRONTIER = 1;
+    public static final byte PATH = 2;
+    public static final byte OPEN = 4;   // carved so far, while replaying a generator log
+
     public Maze maze;
 
     // heatmap visualization
     public boolean showHeatmap = false;
-    public double[][] debugHeatmap = null; // normalized values [0..1]
+    public DistanceField debugHeatmap = null; // shared with the solver, never copied
     public float heatmapAlpha = 0.45f;
 
-    private final int cellSize = 14;
+    // true while a generator log replays: walls come from OPEN marks instead of the live maze
+    public volatile boolean replayWalls = false;
+
+    public static final double MIN_ZOOM = 1.0 / 64, MAX_ZOOM = 64;
+    private static final int MIP_LEVELS = 6;   // 2^6 cells per pixel at MIN_ZOOM
+
+    private double cellPx = 14;   // zoom: pixels per cell
+    private byte[] marks;
+
+    // base colors by kind, and the same blended with each of 256 heatmap levels
+    private static final int WALL = 0, FLOOR = 1, VISITED = 2, ON_PATH = 3;
+    private static final int[] BASE = {0xC0C0C0, 0x000000, 0x64A0F0, 0xFFFF00};
+    private static final int START_RGB = 0x1EC81E, GOAL_RGB = 0xC81E1E;
+    private final int[][] heatLut = new int[BASE.length][256];
+    private float lutAlpha = -1;
+
+    private BufferedImage image;
+    private int[] pixels;
+    private static final Color GRID = new Color(100, 100, 100, 60);
+
+    // mip levels 1..MIP_LEVELS; stats pack wall fraction (bits 0-7), visited (8-15), path (16-23)
+    private boolean pyramid;
+    private final BufferedImage[] mip = new BufferedImage[MIP_LEVELS + 1];
+    private final int[][] mipPixels = new int[MIP_LEVELS + 1][];
+    private final int[][] mipStats = new int[MIP_LEVELS + 1][];
+    private final int[] mipW = new int[MIP_LEVELS + 1], mipH = new int[MIP_LEVELS + 1];
+
+    // cells marked since the last paint; Playback marks and paint drains, both on the EDT
+    private IntList dirty = new IntList();
+    private IntList drained = new IntList();
+    private boolean fullRefresh = true;
+
+    // what the image was last rendered from
+    private Maze renderedMaze;
+    private int renderedVersion;
+    private DistanceField renderedHeatmap;
+    private boolean renderedShowHeatmap;
+    private boolean renderedReplayWalls;
+    private int renderedStart, renderedGoal;
 
     public MazePanel(Maze maze) {
         this.maze = maze;
+        this.marks = new byte[maze.size()];
         setBackground(Color.DARK_GRAY);
+
+        // ctrl + wheel zooms around the mouse; plain wheel still scrolls the enclosing pane
+        addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                zoomAround(cellPx * Math.pow(1.25, -e.getPreciseWheelRotation()), e.getPoint());
+            } else if (getParent() != null) {
+                getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+            }
+        });
     }
 
-    public void repaintPause() {
+    public double getZoom() { return cellPx; }
+
+    /** Sets pixels per cell (clamped to MIN_ZOOM..MAX_ZOOM). */
+    public void setZoom(double px) {
+        cellPx = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, px));
+        revalidate();
         repaint();
-        try { Thread.sleep(12); } catch (InterruptedException ignored) {}
+    }
+
+    // zooms keeping the cell under anchor (panel coordinates) where it is in the viewport
+    public void zoomAround(double px, Point anchor) {
+        double old = cellPx;
+        Container parent = getParent();
+        if (!(parent instanceof JViewport)) {
+            setZoom(px);
+            return;
+        }
+        JViewport vp = (JViewport) parent;
+        Point view = vp.getViewPosition();
+        setZoom(px);
+        double f = cellPx / old;
+        int x = (int) Math.round(anchor.x * f - (anchor.x - view.x));
+        int y = (int) Math.round(anchor.y * f - (anchor.y - view.y));
+        vp.setViewSize(getPreferredSize());
+        vp.setViewPosition(new Point(Math.max(0, x), Math.max(0, y)));
+    }
+
+    /** Zoom that fits the whole maze into the enclosing viewport (or the panel itself). */
+    public void zoomToFit() {
+        Container parent = getParent();
+        Dimension d = parent instanceof JViewport ? parent.getSize() : getSize();
+        if (d.width > 0 && d.height > 0) setZoom(Math.min((double) d.width / maze.cols, (double) d.height / maze.rows));
+    }
+
+    // EDT only, like everything that touches marks
+    public void mark(int cell, byte bit) {
+        marks[cell] |= bit;
+        if (fullRefresh) return;
+        // past an eighth of the maze, recoloring everything is cheaper than tracking cells
+        if (dirty.size() > marks.length >>> 3) {
+            dirty.clear();
+            fullRefresh = true;
+        } else {
+            dirty.add(cell);
+        }
+    }
+
+    public void clearMarks() {
+        if (marks.length != maze.size()) marks = new byte[maze.size()];
+        else Arrays.fill(marks, (byte) 0);
+        dirty.clear();
+        fullRefresh = true;
     }
 
     @Override
     public Dimension getPreferredSize() {
-        return new Dimension(maze.cols * cellSize, maze.rows * cellSize);
+        return new Dimension((int) Math.ceil(maze.cols * cellPx), (int) Math.ceil(maze.rows * cellPx));
     }
 
     @Override
@@ -39,56 +158,198 @@ public class MazePanel extends JPanel {
 
         if (maze == null) return;
 
-        for (int r = 0; r < maze.rows; r++) {
-            for (int c = 0; c < maze.cols; c++) {
-                Cell cell = maze.grid[r][c];
-                int x = c * cellSize;
-                int y = r * cellSize;
-
-                // base: wall / floor
-                if (cell.wall) {
-                    g.setColor(Color.LIGHT_GRAY);
-                    g.fillRect(x, y, cellSize, cellSize);
-                } else {
-                    g.setColor(Color.BLACK);
-                    g.fillRect(x, y, cellSize, cellSize);
-                }
+        Maze m = maze;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(getPreferredSize());
 
-                // frontier (algorithm visited)
-                if (cell.frontier) {
-                    g.setColor(new Color(100, 160, 240)); // light blue
-                    g.fillRect(x, y, cellSize, cellSize);
-                }
+        // level 0 is one pixel per cell; below that, the level whose blocks are at least a pixel
+        int level = 0;
+        while (level < MIP_LEVELS && cellPx * (1 << level) < 1) level++;
+        pyramid |= level > 0;
+        updateImage();
 
-                // final path
-                if (cell.path) {
-                    g.setColor(Color.YELLOW);
-                    g.fillRect(x, y, cellSize, cellSize);
-                }
+        BufferedImage src = level == 0 ? image : mip[level];
+        int w = level == 0 ? m.cols : mipW[level];
+        int h = level == 0 ? m.rows : mipH[level];
+        double px = cellPx * (1 << level);
 
-                // heatmap overlay (blue -> red)
-                if (showHeatmap && debugHeatmap != null) {
-                    double v = debugHeatmap[r][c];
-                    v = Math.max(0.0, Math.min(1.0, v));
-                    // blue (cold) -> red (hot)
-                    Color heat = new Color((float)(1.0 - v), 0f, (float)v, heatmapAlpha);
-                    g.setColor(heat);
-                    g.fillRect(x, y, cellSize, cellSize);
-                }
+        // only the blocks under the clip rectangle
+        int c0 = Math.max(0, (int) Math.floor(clip.x / px));
+        int r0 = Math.max(0, (int) Math.floor(clip.y / px));
+        int c1 = Math.min(w, (int) Math.ceil((clip.x + clip.width) / px));
+        int r1 = Math.min(h, (int) Math.ceil((clip.y + clip.height) / px));
+        if (c0 >= c1 || r0 >= r1) return;
+        g.drawImage(src, x(c0, px), x(r0, px), x(c1, px), x(r1, px), c0, r0, c1, r1, null);
+
+        if (px >= 6) {
+            g.setColor(GRID);
+            int top = x(r0, px), left = x(c0, px), width = x(c1, px) - left, height = x(r1, px) - top;
+            for (int c = c0; c <= c1; c++) g.fillRect(x(c, px), top, 1, height);
+            for (int r = r0; r <= r1; r++) g.fillRect(left, x(r, px), width, 1);
+        }
+    }
+
+    // pixel edge of block i at px pixels per block
+    private static int x(int i, double px) {
+        return (int) Math.round(i * px);
+    }
+
+    // brings the cell-resolution image up to date with the maze, marks and heatmap
+    private void updateImage() {
+        Maze m = maze;
+        IntList t = drained;
+        drained = dirty;
+        dirty = t;
+        boolean full = fullRefresh;
+        fullRefresh = false;
 
-                // start/goal on top
-                if (maze.start == cell) {
-                    g.setColor(new Color(30, 200, 30));
-                    g.fillRect(x, y, cellSize, cellSize);
-                } else if (maze.goal == cell) {
-                    g.setColor(new Color(200, 30, 30));
-                    g.fillRect(x, y, cellSize, cellSize);
+        if (image == null || image.getWidth() != m.cols || image.getHeight() != m.rows) {
+            image = new BufferedImage(m.cols, m.rows, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            full = true;
+        }
+        if (marks.length != m.size()) {
+            marks = new byte[m.size()];
+            full = true;
+        }
+        if (lutAlpha != heatmapAlpha) {
+            buildHeatLut();
+            full = true;
+        }
+        full |= m != renderedMaze || m.version() != renderedVersion
+                || debugHeatmap != renderedHeatmap || showHeatmap != renderedShowHeatmap
+                || replayWalls != renderedReplayWalls;
+
+        if (full) {
+            renderedMaze = m;
+            renderedVersion = m.version();
+            renderedHeatmap = debugHeatmap;
+            renderedShowHeatmap = showHeatmap;
+            renderedReplayWalls = replayWalls;
+            for (int id = 0; id < m.size(); id++) pixels[id] = colorOf(id);
+            if (pyramid) buildPyramid();
+        } else {
+            if (pyramid && mipStats[1] == null) buildPyramid();
+            for (int i = 0; i < drained.size(); i++) recolor(drained.get(i));
+            // endpoints may move without a wall change
+            recolor(renderedStart);
+            recolor(renderedGoal);
+        }
+        drained.clear();
+        renderedStart = Math.max(0, m.start);
+        renderedGoal = Math.max(0, m.goal);
+        if (m.start >= 0) recolor(m.start);
+        if (m.goal >= 0) recolor(m.goal);
+    }
+
+    private void recolor(int id) {
+        pixels[id] = colorOf(id);
+        if (pyramid) propagate(id);
+    }
+
+    // (re)allocates and fills every mip level from the cells below it
+    private void buildPyramid() {
+        for (int k = 1; k <= MIP_LEVELS; k++) {
+            int w = (maze.cols + (1 << k) - 1) >> k;
+            int h = (maze.rows + (1 << k) - 1) >> k;
+            if (mip[k] == null || mipW[k] != w || mipH[k] != h) {
+                mip[k] = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+                mipPixels[k] = ((DataBufferInt) mip[k].getRaster().getDataBuffer()).getData();
+                mipStats[k] = new int[w * h];
+                mipW[k] = w;
+                mipH[k] = h;
+            }
+            for (int r = 0; r < h; r++) {
+                for (int c = 0; c < w; c++) {
+                    int s = blockStats(k, r, c);
+                    mipStats[k][r * w + c] = s;
+                    mipPixels[k][r * w + c] = statsColor(s);
                 }
+            }
+        }
+    }
+
+    // refreshes the blocks containing cell id, bottom-up, until one comes out unchanged
+    private void propagate(int id) {
+        int r = maze.row(id), c = maze.col(id);
+        for (int k = 1; k <= MIP_LEVELS; k++) {
+            r >>= 1;
+            c >>= 1;
+            int i = r * mipW[k] + c;
+            int s = blockStats(k, r, c);
+            if (s == mipStats[k][i]) return;
+            mipStats[k][i] = s;
+            mipPixels[k][i] = statsColor(s);
+        }
+    }
 
-                // thin grid line
-                g.setColor(new Color(100, 100, 100, 60));
-                g.drawRect(x, y, cellSize, cellSize);
+    // stats of block (r, c) at level k from its up-to-four children one level down
+    private int blockStats(int k, int r, int c) {
+        int w = k == 1 ? maze.cols : mipW[k - 1];
+        int h = k == 1 ? maze.rows : mipH[k - 1];
+        int walls = 0, visited = 0, path = 0, n = 0;
+        for (int cr = 2 * r; cr < Math.min(2 * r + 2, h); cr++) {
+            for (int cc = 2 * c; cc < Math.min(2 * c + 2, w); cc++) {
+                int s = k == 1 ? cellStats(maze.id(cr, cc)) : mipStats[k - 1][cr * w + cc];
+                walls += s & 0xFF;
+                visited += s >> 8 & 0xFF;
+                path = Math.max(path, s >> 16 & 0xFF);
+                n++;
             }
         }
+        return path << 16 | (visited + n / 2) / n << 8 | (walls + n / 2) / n;
+    }
+
+    private int cellStats(int id) {
+        byte mk = marks[id];
+        boolean onPath = (mk & PATH) != 0 || id == maze.start || id == maze.goal;
+        boolean wall = replayWalls ? (mk & OPEN) == 0 : maze.isWall(id);
+        return (onPath ? 0xFF0000 : 0) | ((mk & (FRONTIER | PATH)) != 0 ? 0xFF00 : 0) | (wall ? 0xFF : 0);
+    }
+
+    // path anywhere in the block wins; otherwise floor->wall by wall density, then tinted by visits
+    private static int statsColor(int s) {
+        if ((s >> 16 & 0xFF) != 0) return BASE[ON_PATH];
+        int wall = s & 0xFF, visited = s >> 8 & 0xFF;
+        int floor = BASE[FLOOR], wallRgb = BASE[WALL], vis = BASE[VISITED];
+        int rgb = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            int base = ((floor >> shift & 0xFF) * (255 - wall) + (wallRgb >> shift & 0xFF) * wall) / 255;
+            int tinted = (base * (255 - visited) + (vis >> shift & 0xFF) * visited) / 255;
+            rgb |= tinted << shift;
+        }
+        return rgb;
+    }
+
+    private int colorOf(int id) {
+        if (id == maze.start) return START_RGB;
+        if (id == maze.goal) return GOAL_RGB;
+
+        int kind = (marks[id] & PATH) != 0 ? ON_PATH
+                : (marks[id] & FRONTIER) != 0 ? VISITED
+                : (replayWalls ? (marks[id] & OPEN) == 0 : maze.isWall(id)) ? WALL : FLOOR;
+
+        double v = showHeatmap && debugHeatmap != null ? debugHeatmap.normalized(id) : -1;
+        return v >= 0 ? heatLut[kind][(int) (v * 255)] : BASE[kind];
+    }
+
+    // blue (cold) -> red (hot) over each base color, at heatmapAlpha
+    private void buildHeatLut() {
+        float a = heatmapAlpha;
+        for (int k = 0; k < BASE.length; k++) {
+            int base = BASE[k];
+            for (int i = 0; i < 256; i++) {
+                double v = i / 255.0;
+                int r = blend(base >> 16 & 0xFF, (int) Math.round((1.0 - v) * 255), a);
+                int gr = blend(base >> 8 & 0xFF, 0, a);
+                int b = blend(base & 0xFF, (int) Math.round(v * 255), a);
+                heatLut[k][i] = r << 16 | gr << 8 | b;
+            }
+        }
+        lutAlpha = a;
+    }
+
+    private static int blend(int under, int over, float alpha) {
+        return Math.round(under * (1 - alpha) + over * alpha);
     }
 }
@@ -0,0 +1,24 @@
+package maze;
+
+import java.io.IOException;
+
+/**
+ * Receives a maze one grid row at a time from a streaming generator.
+ * bits holds cols wall bits for the row (bit c of word c/64 set = wall); the array is reused
+ * for the next row, so copy anything you want to keep.
+ */
+@FunctionalInterface
+public interface MazeRowSink {
+
+    void row(long r, long[] bits) throws IOException;
+
+    // writes rows into an in-memory maze of matching size
+    static MazeRowSink into(Maze maze) {
+        return (r, bits) -> {
+            int base = maze.id((int) r, 0);
+            for (int c = 0; c < maze.cols; c++) {
+                maze.setWall(base + c, (bits[c >>> 6] & (1L << c)) != 0);
+            }
+        };
+    }
+}
@@ -1,7 +1,5 @@
 package maze;
 
-import java.util.*;
-
 public class Optimistic {
 
     // Direction vectors
@@ -16,74 +14,82 @@ public class Optimistic {
     private static int turnRight(int d) { return (d + 1) % 4; }
     private static int turnLeft(int d)  { return (d + 3) % 4; }
 
-    public static void search(Maze maze, MazePanel panel) {
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+
+        int start = ctx.start;
+        int goal  = ctx.goal;
+        SearchListener listener = ctx.listener;
 
-        Cell start = maze.start;
-        Cell goal  = maze.goal;
+        IntList takenPath = new IntList();  // final path list
+        ctx.arm();
 
-        List<Cell> takenPath = new ArrayList<>();  // final path list
+        // the walk is deterministic, so more moves than (cell, heading, mode) states means it is cycling
+        long maxMoves = 8L * maze.size();
 
-        Cell current = start;
-        current.frontier = true;
-        panel.repaintPause();
+        int current = start;
+        ctx.generate(current);
+        ctx.frontier(1);   // a single walker: the frontier is always just the current cell
 
         while (current != goal) {
+            if (ctx.exhausted(takenPath.size())) return ctx.stopped(takenPath.size());
+            if (takenPath.size() > maxMoves) return new SearchResult(null, takenPath.size());
 
             // 1. Try GREEDY step
-            Cell greedyNext = greedyStep(maze, current, goal);
+            int greedyNext = greedyStep(maze, current, goal);
 
-            if (greedyNext != null && !greedyNext.wall) {
+            if (greedyNext != -1 && !maze.isWall(greedyNext)) {
                 // Take greedy step
-                greedyNext.frontier = true;
                 takenPath.add(greedyNext);
                 current = greedyNext;
-                panel.repaintPause();
+                listener.onVisit(current);
                 continue;
             }
 
             // 2. GREEDY blocked → wall-follow mode 
-            int dir = directionTowardGoal(current, goal);   // approx movement direction
+            int dir = directionTowardGoal(maze, current, goal);   // approx movement direction
 
             // Enter wall-following loop
-            current = wallFollow(maze, panel, current, dir, goal, takenPath);
+            current = wallFollow(maze, ctx, current, dir, goal, takenPath, maxMoves);
 
-            if (current == null) {
-                System.out.println("No path found (Bug2 failed).");
-                return;
-            }
+            if (current == STOPPED) return ctx.stopped(takenPath.size());
+            if (current == -1) return new SearchResult(null, takenPath.size());   // Bug2 failed
         }
 
         // final paint
-        for (Cell c : takenPath) {
-            c.path = true;
-            panel.repaintPause();
+        for (int i = 0; i < takenPath.size(); i++) {
+            listener.onPath(takenPath.get(i));
         }
 
-        goal.path = true;
-        panel.repaintPause();
+        listener.onPath(goal);
+
+        int[] path = new int[takenPath.size() + 1];
+        path[0] = start;
+        for (int i = 0; i < takenPath.size(); i++) path[i + 1] = takenPath.get(i);
+        return new SearchResult(path, takenPath.size());
     }
 
 
     // GREEDY STEP
-    private static Cell greedyStep(Maze maze, Cell c, Cell goal) {
+    private static int greedyStep(Maze maze, int c, int goal) {
 
-        int bestDr = Integer.compare(goal.row, c.row);
-        int bestDc = Integer.compare(goal.col, c.col);
+        int row = maze.row(c), col = maze.col(c);
+        int bestDr = Integer.compare(maze.row(goal), row);
+        int bestDc = Integer.compare(maze.col(goal), col);
 
-        int nr = c.row + bestDr;
-        int nc = c.col + bestDc;
+        int nr = row + bestDr;
+        int nc = col + bestDc;
 
-        if (inBounds(maze, nr, nc)) {
-            return maze.grid[nr][nc];
+        if (maze.inBounds(nr, nc)) {
+            return maze.id(nr, nc);
         }
-        return null;
+        return -1;
     }
 
 
     // Convert greedy motion to direction index
-    private static int directionTowardGoal(Cell c, Cell g) {
-        int dr = Integer.compare(g.row, c.row);
-        int dc = Integer.compare(g.col, c.col);
+    private static int directionTowardGoal(Maze maze, int c, int g) {
+        int dr = Integer.compare(maze.row(g), maze.row(c));
+        int dc = Integer.compare(maze.col(g), maze.col(c));
 
         if (dr == 0 && dc == 1)  return 0; // RIGHT
         if (dr == 1 && dc == 0)  return 1; // DOWN
@@ -101,34 +107,39 @@ public class Optimistic {
     
     // WALL FOLLOWING 
  
-    private static Cell wallFollow(Maze maze, MazePanel panel,
-                                   Cell start, int dir,
-                                   Cell goal, List<Cell> taken) {
+    private static final int STOPPED = -2;
 
-        Cell current = start;
+    // returns the cell to resume greedy from, the goal, -1 if no exit, or STOPPED on a budget
+    private static int wallFollow(Maze maze, SearchContext ctx,
+                                  int start, int dir,
+                                  int goal, IntList taken, long maxMoves) {
+
+        SearchListener listener = ctx.listener;
+        int current = start;
 
         // Mark start of wall-following
         // Try to turn right first (right-hand rule)
         dir = turnRight(dir);
 
         while (true) {
+            if (ctx.exhausted(taken.size())) return STOPPED;
+            if (taken.size() > maxMoves) return -1;   // circling without ever passing start again
 
             // Check if greedy direction is now open → resume greedy mode
-            Cell greedy = greedyStep(maze, current, goal);
-            if (greedy != null && !greedy.wall) {
+            int greedy = greedyStep(maze, current, goal);
+            if (greedy != -1 && !maze.isWall(greedy)) {
                 return current;   // caller resumes greedy from here
             }
 
             // Try to move forward following wall
-            int nr = current.row + DIRS[dir][0];
-            int nc = current.col + DIRS[dir][1];
+            int nr = maze.row(current) + DIRS[dir][0];
+            int nc = maze.col(current) + DIRS[dir][1];
 
-            if (inBounds(maze, nr, nc) && !maze.grid[nr][nc].wall) {
+            if (maze.inBounds(nr, nc) && !maze.isWall(nr, nc)) {
                 // Move forward
-                current = maze.grid[nr][nc];
-                current.frontier = true;
+                current = maze.id(nr, nc);
                 taken.add(current);
-                panel.repaintPause();
+                listener.onVisit(current);
 
                 if (current == goal)
                     return current;
@@ -143,12 +154,7 @@ public class Optimistic {
             // Safety: if we return to the exact starting cell AND direction,
             // and never found an exit - no solution
             if (current == start)
-                return null;
+                return -1;
         }
     }
-
-
-    private static boolean inBounds(Maze maze, int r, int c) {
-        return r >= 0 && c >= 0 && r < maze.rows && c < maze.cols;
-    }
 }
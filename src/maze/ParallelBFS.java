@@ -0,0 +1,189 @@
+package maze;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Level-synchronous BFS that expands each frontier level across a ForkJoinPool.
+ *
+ * Top-down levels split the frontier into chunks; workers claim neighbors by CAS on the
+ * context's seen stamps and collect them in their own next-frontier buffers, which are
+ * concatenated after the level. When the frontier gets wide compared to the unexplored
+ * area, levels switch to bottom-up: every unseen open cell looks for a seen neighbor, which
+ * must be on the current frontier. Bottom-up workers own disjoint cell ranges, so no atomics
+ * are needed there. Small levels run inline on the calling thread.
+ *
+ * Levels are the same as in BFS, so the path length always matches BFS.search.
+ * Listener events are sent from the calling thread between levels, and the context's limits
+ * are checked there too, so a budget can overshoot by at most one level.
+ */
+public class ParallelBFS {
+
+    private static final int INLINE_LEVEL = 4096;   // frontiers smaller than this skip the pool
+    private static final int CHUNK = 1024;           // min cells per task
+    private static final int ALPHA = 14;             // go bottom-up when frontier * ALPHA > unexplored
+    private static final int BETA = 24;              // back to top-down when frontier * BETA < open cells
+
+    private static final VarHandle STAMP = MethodHandles.arrayElementVarHandle(int[].class);
+
+    public static SearchResult search(Maze maze, SearchContext ctx) {
+        return search(maze, ctx, ForkJoinPool.commonPool());
+    }
+
+    public static SearchResult search(Maze maze, SearchContext ctx, ForkJoinPool pool) {
+
+        int start = ctx.start;
+        int goal = ctx.goal;
+        SearchListener listener = ctx.listener;
+        if (start < 0 || goal < 0) return new SearchResult(null, 0);
+
+        int n = maze.size();
+        ctx.begin(n);
+        int[] parent = ctx.parent();
+        int[] frontier = ctx.buffer();
+        int[] next = ctx.bufferBack();
+
+        frontier[0] = start;
+        int size = 1;
+        ctx.markSeen(start);
+        parent[start] = -1;
+        ctx.generate(start);
+
+        int open = maze.openCells();
+        long remaining = open - 1;
+        boolean bottomUp = false;
+        int expanded = 0;
+
+        while (size > 0 && !ctx.seen(goal)) {
+            if (ctx.exhaustedNow(expanded)) return ctx.stopped(expanded);   // checked per level
+            expanded += size;
+
+            if (!bottomUp && (long) size * ALPHA > remaining) bottomUp = true;
+            else if (bottomUp && (long) size * BETA < open) bottomUp = false;
+
+            int nextSize;
+            try {
+                nextSize = bottomUp
+                        ? bottomUpLevel(maze, ctx, next, pool)
+                        : topDownLevel(maze, ctx, frontier, size, next, pool);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new SearchResult(null, expanded, SearchResult.Status.CANCELLED);
+            }
+
+            for (int i = 0; i < nextSize; i++) listener.onFrontier(next[i]);
+            ctx.generated += nextSize;
+            ctx.frontier(nextSize);
+            remaining -= nextSize;
+
+            int[] t = frontier;
+            frontier = next;
+            next = t;
+            size = nextSize;
+        }
+
+        if (!ctx.seen(goal)) return new SearchResult(null, expanded);
+        return new SearchResult(SearchResult.tracePath(parent, goal, listener), expanded);
+    }
+
+    private static int topDownLevel(Maze maze, SearchContext ctx, int[] frontier, int size,
+                                    int[] next, ForkJoinPool pool) throws InterruptedException {
+        if (size < INLINE_LEVEL || pool.getParallelism() == 1) {
+            IntList out = new IntList(size * 2);
+            expandTopDown(maze, ctx, frontier, 0, size, out);
+            return copyOut(out, next, 0);
+        }
+
+        int tasks = Math.min(pool.getParallelism() * 4, (size + CHUNK - 1) / CHUNK);
+        List<Callable<IntList>> work = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            int lo = (int) ((long) size * t / tasks);
+            int hi = (int) ((long) size * (t + 1) / tasks);
+            work.add(() -> {
+                IntList out = new IntList(hi - lo);
+                expandTopDown(maze, ctx, frontier, lo, hi, out);
+                return out;
+            });
+        }
+        return gather(pool.invokeAll(work), next);
+    }
+
+    // claim unseen open neighbors of frontier[lo..hi) into out
+    private static void expandTopDown(Maze maze, SearchContext ctx, int[] frontier, int lo, int hi, IntList out) {
+        int[] seen = ctx.seenStamps();
+        int gen = ctx.generation();
+        int[] parent = ctx.parent();
+        for (int i = lo; i < hi; i++) {
+            int cur = frontier[i];
+            for (int d = 0; d < 4; d++) {
+                int nxt = maze.neighbor(cur, d);
+                if (nxt < 0 || maze.isWall(nxt)) continue;
+                int s = seen[nxt];
+                if (s != gen && STAMP.compareAndSet(seen, nxt, s, gen)) {
+                    parent[nxt] = cur;
+                    out.add(nxt);
+                }
+            }
+        }
+    }
+
+    private static int bottomUpLevel(Maze maze, SearchContext ctx, int[] next,
+                                     ForkJoinPool pool) throws InterruptedException {
+        int n = maze.size();
+        int tasks = pool.getParallelism() == 1 ? 1 : Math.min(pool.getParallelism() * 4, (n + CHUNK - 1) / CHUNK);
+        List<Callable<IntList>> work = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            int lo = (int) ((long) n * t / tasks);
+            int hi = (int) ((long) n * (t + 1) / tasks);
+            work.add(() -> {
+                IntList out = new IntList();
+                expandBottomUp(maze, ctx, lo, hi, out);
+                return out;
+            });
+        }
+        int count = gather(pool.invokeAll(work), next);
+
+        // stamp only after the level, so workers never saw this level's cells as frontier
+        for (int i = 0; i < count; i++) ctx.markSeen(next[i]);
+        return count;
+    }
+
+    // every unseen open cell in [lo, hi) with a seen neighbor joins the next level
+    private static void expandBottomUp(Maze maze, SearchContext ctx, int lo, int hi, IntList out) {
+        int[] parent = ctx.parent();
+        for (int id = lo; id < hi; id++) {
+            if (ctx.seen(id) || maze.isWall(id)) continue;
+            for (int d = 0; d < 4; d++) {
+                int nb = maze.neighbor(id, d);
+                if (nb >= 0 && ctx.seen(nb)) {
+                    parent[id] = nb;
+                    out.add(id);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int gather(List<Future<IntList>> parts, int[] next) throws InterruptedException {
+        int count = 0;
+        for (Future<IntList> f : parts) {
+            try {
+                count = copyOut(f.get(), next, count);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("parallel BFS worker failed", e.getCause());
+            }
+        }
+        return count;
+    }
+
+    private static int copyOut(IntList src, int[] dst, int at) {
+        for (int i = 0; i < src.size(); i++) dst[at++] = src.get(i);
+        return at;
+    }
+}
@@ -0,0 +1,130 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel perfect-maze generator: randomized Kruskal, split into tiles.
+ *
+ * Logical cells (the odd grid coordinates) are cut into TILE x TILE tiles. Each tile runs
+ * Kruskal over its own internal edges on a worker thread; tiles only ever union their own
+ * cells, so they can share one int[] union-find. A sequential Kruskal pass over the shuffled
+ * tile-boundary edges then stitches the tiles into a single spanning tree.
+ *
+ * Tile randomness is derived from (seed, tile index), so the maze depends only on the seed,
+ * not on the thread count. Wall bits are cleared atomically since tiles can share a word.
+ */
+public class ParallelMazeGenerator {
+
+    static final int TILE = 128;   // logical cells per tile side
+
+    public static void generate(Maze maze, long seed, double extraOpenings) {
+        generate(maze, seed, extraOpenings, ForkJoinPool.commonPool());
+    }
+
+    public static void generate(Maze maze, long seed, double extraOpenings, ForkJoinPool pool) {
+        int h = (maze.rows - 1) / 2;
+        int w = (maze.cols - 1) / 2;
+        int tilesY = (h + TILE - 1) / TILE;
+        int tilesX = (w + TILE - 1) / TILE;
+
+        maze.fillWalls();
+        int[] uf = new int[h * w];
+        Arrays.fill(uf, -1);   // negative = root, -size
+
+        // 1. spanning tree inside every tile, in parallel
+        pool.invoke(ForkJoinTask.adapt(() ->
+                IntStream.range(0, tilesX * tilesY).parallel()
+                        .forEach(t -> carveTile(maze, uf, w, h, t % tilesX * TILE, t / tilesX * TILE, tileSeed(seed, t)))));
+
+        // 2. stitch tiles with Kruskal over the boundary edges (cell index * 2 + 0 right / 1 down)
+        int[] edges = new int[h * (tilesX - 1) + w * (tilesY - 1)];
+        int m = 0;
+        for (int y = 0; y < h; y++)
+            for (int x = TILE - 1; x + 1 < w; x += TILE) edges[m++] = (y * w + x) * 2;
+        for (int y = TILE - 1; y + 1 < h; y += TILE)
+            for (int x = 0; x < w; x++) edges[m++] = (y * w + x) * 2 + 1;
+
+        SplittableRandom rng = new SplittableRandom(seed);
+        shuffle(edges, m, rng);
+        kruskal(maze, uf, w, edges, m);
+
+        // add a few random openings to increase complexity
+        int extra = (int) (maze.size() * extraOpenings);
+        for (int i = 0; i < extra; i++) {
+            int r = 1 + rng.nextInt(Math.max(1, maze.rows - 2));
+            int c = 1 + rng.nextInt(Math.max(1, maze.cols - 2));
+            maze.setWall(maze.id(r, c), false);
+        }
+
+        maze.placeEndpoints(rng::nextInt);
+    }
+
+    private static void carveTile(Maze maze, int[] uf, int w, int h, int x0, int y0, long seed) {
+        int x1 = Math.min(w, x0 + TILE);
+        int y1 = Math.min(h, y0 + TILE);
+
+        int[] edges = new int[2 * (x1 - x0) * (y1 - y0)];
+        int m = 0;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                int cell = y * w + x;
+                maze.openConcurrent(maze.id(2 * y + 1, 2 * x + 1));
+                if (x + 1 < x1) edges[m++] = cell * 2;
+                if (y + 1 < y1) edges[m++] = cell * 2 + 1;
+            }
+        }
+        shuffle(edges, m, new SplittableRandom(seed));
+        kruskal(maze, uf, w, edges, m);
+    }
+
+    // keep every edge that joins two components, knocking out the wall between its cells
+    private static void kruskal(Maze maze, int[] uf, int w, int[] edges, int m) {
+        for (int i = 0; i < m; i++) {
+            int a = edges[i] >>> 1;
+            int b = (edges[i] & 1) == 0 ? a + 1 : a + w;
+            if (union(uf, a, b)) {
+                int ay = a / w, ax = a - ay * w;
+                int wr = 2 * ay + 1 + (b == a + w ? 1 : 0);
+                int wc = 2 * ax + 1 + (b == a + 1 ? 1 : 0);
+                maze.openConcurrent(maze.id(wr, wc));
+            }
+        }
+    }
+
+    private static boolean union(int[] uf, int a, int b) {
+        a = find(uf, a);
+        b = find(uf, b);
+        if (a == b) return false;
+        if (uf[a] > uf[b]) { int t = a; a = b; b = t; }   // a is the larger set
+        uf[a] += uf[b];
+        uf[b] = a;
+        return true;
+    }
+
+    // path halving
+    private static int find(int[] uf, int x) {
+        while (uf[x] >= 0) {
+            int p = uf[x];
+            if (uf[p] >= 0) uf[x] = uf[p];
+            x = p;
+        }
+        return x;
+    }
+
+    private static void shuffle(int[] a, int n, SplittableRandom rng) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static long tileSeed(long seed, int tile) {
+        return seed ^ (0x9E3779B97F4A7C15L * (tile + 1));
+    }
+}
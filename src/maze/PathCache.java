@@ -0,0 +1,156 @@
+package maze;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache in front of a Solver, keyed by (maze fingerprint, start, goal).
+ * The fingerprint is a hash of the wall grid, so regenerating or editing a maze changes
+ * every key and stale entries simply age out. Paths are stored as 2 bits per step, or as the raw
+ * cell ids when the solver takes steps that aren't 4-adjacent (Optimistic's diagonal moves).
+ * Only complete answers are cached (a path, or a search that proved there is none); runs stopped
+ * by a budget, deadline or cancel pass through uncached.
+ * Thread-safe; concurrent misses on the same key may both run the solver.
+ */
+public class PathCache implements Solver {
+
+    private final Solver solver;
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Map<Key, Entry> entries;
+
+    public PathCache(Solver solver, int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        this.solver = solver;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= PathCache.this.maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public SearchResult solve(Maze maze, SearchContext ctx) {
+        Key key = new Key(maze.fingerprint(), ctx.start, ctx.goal);
+        Entry e;
+        synchronized (entries) { e = entries.get(key); }
+        if (e != null) {
+            hits.increment();
+            int[] path = e.decode(maze, ctx.start);
+            if (path != null) {
+                for (int i = path.length - 1; i >= 0; i--) ctx.listener.onPath(path[i]);
+            }
+            return new SearchResult(path, 0);
+        }
+
+        misses.increment();
+        SearchResult result = solver.solve(maze, ctx);
+        if (!result.complete()) return result;
+        e = Entry.encode(maze, result.path);
+        synchronized (entries) { entries.put(key, e); }
+        return result;
+    }
+
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public long evictions() { return evictions.sum(); }
+
+    public double hitRate() {
+        long h = hits(), total = h + misses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (entries) { return entries.size(); }
+    }
+
+    public void clear() {
+        synchronized (entries) { entries.clear(); }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PathCache{size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%}",
+                size(), maxEntries, hits(), misses(), evictions(), hitRate() * 100);
+    }
+
+    private static final class Key {
+        final long fingerprint;
+        final int start, goal;
+
+        Key(long fingerprint, int start, int goal) {
+            this.fingerprint = fingerprint;
+            this.start = start;
+            this.goal = goal;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return fingerprint == k.fingerprint && start == k.start && goal == k.goal;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint) * 31 * 31 + start * 31 + goal;
+        }
+    }
+
+    // path as a step count plus one 2-bit direction per step, 32 steps per long; steps < 0 = no path.
+    // A path with a non-adjacent step is kept as a copy of its cells instead.
+    private static final class Entry {
+        static final Entry NOT_FOUND = new Entry(-1, null, null);
+
+        final int steps;
+        final long[] moves;
+        final int[] cells;
+
+        Entry(int steps, long[] moves, int[] cells) {
+            this.steps = steps;
+            this.moves = moves;
+            this.cells = cells;
+        }
+
+        static Entry encode(Maze maze, int[] path) {
+            if (path == null) return NOT_FOUND;
+            int steps = path.length - 1;
+            long[] moves = new long[(steps + 31) >>> 5];
+            for (int i = 0; i < steps; i++) {
+                long dir = direction(maze, path[i], path[i + 1]);
+                if (dir < 0) return new Entry(steps, null, path.clone());
+                moves[i >>> 5] |= dir << ((i & 31) << 1);
+            }
+            return new Entry(steps, moves, null);
+        }
+
+        int[] decode(Maze maze, int start) {
+            if (steps < 0) return null;
+            if (cells != null) return cells.clone();
+            int[] path = new int[steps + 1];
+            path[0] = start;
+            for (int i = 0; i < steps; i++) {
+                int dir = (int) (moves[i >>> 5] >>> ((i & 31) << 1)) & 3;
+                path[i + 1] = maze.neighbor(path[i], dir);
+            }
+            return path;
+        }
+
+        // Maze direction of a 4-adjacent step, or -1
+        static int direction(Maze maze, int from, int to) {
+            if (to == from + maze.cols) return Maze.DOWN;
+            if (to == from - maze.cols) return Maze.UP;
+            if (to == from + 1) return Maze.RIGHT;
+            if (to == from - 1) return Maze.LEFT;
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package maze;
+
+import javax.swing.Timer;
+
+/**
+ * Replays a SearchEventLog onto a MazePanel at a chosen rate, independent of how fast the log
+ * was written. Runs on a 60 fps Swing timer and applies however many events the rate allows per
+ * frame, then repaints once. The log may still be growing; playback simply waits at its end.
+ *
+ * Seeking backwards clears the panel and re-applies events from the start without repainting in
+ * between, so any position is a single frame away. All methods must be called on the EDT.
+ */
+public class Playback {
+
+    private static final int FRAME_MS = 16;
+
+    private final MazePanel panel;
+    private final Timer timer;
+
+    private SearchEventLog log;
+    private long position;          // events applied so far
+    private double eventsPerSecond = 100;
+    private double carry;           // fractional events owed from earlier frames
+    private long lastTick;
+    private boolean paused;
+    private Runnable onFrame = () -> {};
+
+    public Playback(MazePanel panel) {
+        this.panel = panel;
+        this.timer = new Timer(FRAME_MS, e -> tick());
+    }
+
+    /** Starts replaying log from its first event, replacing whatever was playing. */
+    public void play(SearchEventLog log) {
+        this.log = log;
+        panel.clearMarks();
+        panel.replayWalls = log.carving;
+        position = 0;
+        carry = 0;
+        paused = false;
+        lastTick = System.nanoTime();
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+        log = null;
+        panel.replayWalls = false;
+        panel.repaint();
+    }
+
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+        lastTick = System.nanoTime();
+        if (log != null) timer.start();
+    }
+
+    public boolean isPaused() { return paused; }
+
+    public void setRate(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    /** Jumps to an event index (clamped to what has been logged so far). */
+    public void seek(long target) {
+        if (log == null) return;
+        target = Math.max(0, Math.min(target, log.size()));
+        if (target < position) {
+            panel.clearMarks();
+            panel.replayWalls = log.carving;
+            position = 0;
+        }
+        apply(target);
+        carry = 0;
+        if (!timer.isRunning()) timer.start();
+        panel.repaint();
+        onFrame.run();
+    }
+
+    /** Skips to everything logged so far; playback then keeps up with the writer live. */
+    public void fastForward() {
+        if (log != null) seek(log.size());
+    }
+
+    public long position() { return position; }
+
+    public SearchEventLog log() { return log; }
+
+    /** Called after every frame, e.g. to move a seek slider. */
+    public void setOnFrame(Runnable onFrame) {
+        this.onFrame = onFrame;
+    }
+
+    private void tick() {
+        if (log == null) {
+            timer.stop();
+            return;
+        }
+        long now = System.nanoTime();
+        if (!paused) {
+            carry += eventsPerSecond * (now - lastTick) / 1e9;
+            long n = (long) carry;
+            carry -= n;
+            apply(Math.min(log.size(), position + n));
+            if (position == log.size()) carry = 0;   // don't bank time while waiting for the writer
+        }
+        lastTick = now;
+        if (log.heatmap() != null) panel.debugHeatmap = log.heatmap();
+
+        if (log.finished() && position == log.size()) {
+            // the generator's result is now the real maze; render walls from it again
+            panel.replayWalls = false;
+            timer.stop();
+        }
+        panel.repaint();
+        onFrame.run();
+    }
+
+    private void apply(long target) {
+        for (long i = position; i < target; i++) {
+            int cell = log.cell(i);
+            switch (log.type(i)) {
+                case SearchEventLog.FRONTIER:
+                case SearchEventLog.VISIT:
+                    panel.mark(cell, MazePanel.FRONTIER);
+                    break;
+                case SearchEventLog.PATH:
+                    panel.mark(cell, MazePanel.PATH);
+                    break;
+                case SearchEventLog.CARVE:
+                    panel.mark(cell, MazePanel.OPEN);
+                    break;
+                default:
+                    break;
+            }
+        }
+        position = target;
+    }
+}
@@ -0,0 +1,205 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query search state: start/goal, listener and the scratch arrays a solver needs.
+ * The Maze itself is never written by a search, so many contexts can search one maze at once.
+ *
+ * "Seen" and "closed" use generation stamps: a cell counts as marked only if its stamp equals
+ * the current generation, so begin() resets in O(1) instead of clearing rows*cols entries.
+ * A context is not thread-safe; give each thread its own (see SearchContextPool). The one
+ * exception is cancel(), which any thread may call while a search is running.
+ *
+ * Limits (timeout, maxExpanded) stay set across queries; solvers poll exhausted() once per
+ * expansion and return a BUDGET_EXHAUSTED or CANCELLED result when it trips.
+ *
+ * Solvers also keep a few run counters here (cells generated, precomputed, peak frontier, rescues)
+ * that SearchMetrics reads after the run; they are reset whenever a search starts.
+ */
+public class SearchContext {
+
+    public int start;
+    public int goal;
+    public SearchListener listener = SearchListener.NONE;
+
+    private long timeoutNanos = Long.MAX_VALUE;
+    private int maxExpanded = Integer.MAX_VALUE;
+    private long deadline = Long.MAX_VALUE;   // System.nanoTime() value, armed when a search begins
+    private volatile boolean cancelled;
+
+    // run counters, reset by arm(); plain fields so the hot loops pay one increment
+    int generated;        // cells (or graph nodes) put on the frontier
+    int precomputed;      // cells covered by preprocessing the run relied on (cached or not)
+    int peakFrontier;
+    int rescues;          // GreedyBFSFallback stuck events
+    int rescueExpanded;   // cells expanded by all rescues together
+    int maxRescue;        // largest single rescue
+
+    private int gen;
+    private int capacity;
+    private int[] seen = new int[0];
+    private int[] parent = new int[0];
+    private int[] buffer = new int[0];   // queue / stack storage
+
+    // only allocated by solvers that need them (A*)
+    private int[] closed;
+    private int[] dist;
+    private IndexedMinHeap heap;
+
+    // second search tree, grown from the goal by bidirectional solvers
+    private int[] seenBack;
+    private int[] parentBack;
+    private int[] distBack;
+    private int[] bufferBack;
+
+    public SearchContext() {}
+
+    public SearchContext(int start, int goal, SearchListener listener) {
+        query(start, goal, listener);
+    }
+
+    /** Sets up the next query; returns this for chaining. */
+    public SearchContext query(int start, int goal, SearchListener listener) {
+        this.start = start;
+        this.goal = goal;
+        this.listener = listener;
+        this.cancelled = false;
+        return this;
+    }
+
+    /** Wall-clock budget per search, measured from the solver's start; Long.MAX_VALUE = none. */
+    public SearchContext timeout(long timeout, TimeUnit unit) {
+        this.timeoutNanos = timeout == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toNanos(timeout);
+        return this;
+    }
+
+    /** Maximum cells a search may expand before giving up; Integer.MAX_VALUE = none. */
+    public SearchContext maxExpanded(int maxExpanded) {
+        this.maxExpanded = maxExpanded;
+        return this;
+    }
+
+    public SearchContext unlimited() {
+        return timeout(Long.MAX_VALUE, TimeUnit.NANOSECONDS).maxExpanded(Integer.MAX_VALUE);
+    }
+
+    /** Asks the running search to stop at its next expansion. Cleared by the next query(). */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // starts the deadline clock; begin() does this, solvers without grid state call it directly
+    void arm() {
+        deadline = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+        resetCounters();
+    }
+
+    void resetCounters() {
+        generated = precomputed = peakFrontier = rescues = rescueExpanded = maxRescue = 0;
+    }
+
+    // a cell joined the frontier: count it and tell the listener
+    void generate(int cell) {
+        generated++;
+        listener.onFrontier(cell);
+    }
+
+    // frontier size after an expansion
+    void frontier(int size) {
+        if (size > peakFrontier) peakFrontier = size;
+    }
+
+    // polled once per expansion: a volatile read and a compare, plus a clock read every 256 calls
+    boolean exhausted(int expanded) {
+        if (cancelled || expanded >= maxExpanded) return true;
+        return (expanded & 255) == 0 && pastDeadline();
+    }
+
+    // same check for solvers that only poll between large batches (ParallelBFS levels)
+    boolean exhaustedNow(int expanded) {
+        return cancelled || expanded >= maxExpanded || pastDeadline();
+    }
+
+    private boolean pastDeadline() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0;
+    }
+
+    // result for a search that exhausted() stopped
+    SearchResult stopped(int expanded) {
+        return new SearchResult(null, expanded,
+                cancelled ? SearchResult.Status.CANCELLED : SearchResult.Status.BUDGET_EXHAUSTED);
+    }
+
+    // called by a solver before touching any state; grows arrays to n cells and bumps the generation
+    void begin(int n) {
+        arm();
+        if (n > capacity) {
+            capacity = n;
+            seen = new int[n];
+            parent = new int[n];
+            buffer = new int[n];
+            closed = null;
+            dist = null;
+            heap = null;
+            seenBack = parentBack = distBack = bufferBack = null;
+            gen = 0;
+        }
+        if (++gen == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            if (closed != null) Arrays.fill(closed, 0);
+            if (seenBack != null) Arrays.fill(seenBack, 0);
+            gen = 1;
+        }
+        if (heap != null) heap.clear();
+    }
+
+    boolean seen(int id) { return seen[id] == gen; }
+    void markSeen(int id) { seen[id] = gen; }
+
+    // raw stamps for solvers that claim cells atomically from several threads (ParallelBFS)
+    int[] seenStamps() { return seen; }
+    int generation() { return gen; }
+
+    boolean closed(int id) { return closed[id] == gen; }
+    void markClosed(int id) { closed[id] = gen; }
+
+    int[] parent() { return parent; }
+    int[] buffer() { return buffer; }
+
+    // A* state: g-costs (valid only for seen cells), closed stamps and the open list
+    int[] dist() {
+        if (dist == null) {
+            dist = new int[capacity];
+            closed = new int[capacity];
+        }
+        return dist;
+    }
+
+    IndexedMinHeap heap() {
+        if (heap == null) heap = new IndexedMinHeap(capacity);
+        return heap;
+    }
+
+    // backward tree; call one of the array accessors before seenBack/markSeenBack
+    boolean seenBack(int id) { return seenBack[id] == gen; }
+    void markSeenBack(int id) { seenBack[id] = gen; }
+
+    int[] parentBack() { ensureBack(); return parentBack; }
+    int[] distBack() { ensureBack(); return distBack; }
+    int[] bufferBack() { ensureBack(); return bufferBack; }
+
+    private void ensureBack() {
+        if (seenBack == null) {
+            seenBack = new int[capacity];
+            parentBack = new int[capacity];
+            distBack = new int[capacity];
+            bufferBack = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package maze;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe pool of SearchContexts so repeated queries reuse their scratch arrays.
+ * At most maxIdle contexts are kept; extras are dropped on release.
+ */
+public class SearchContextPool {
+
+    private final ConcurrentLinkedQueue<SearchContext> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+
+    public SearchContextPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public SearchContext acquire() {
+        SearchContext ctx = idle.poll();
+        if (ctx == null) return new SearchContext();
+        idleCount.decrementAndGet();
+        return ctx;
+    }
+
+    public void release(SearchContext ctx) {
+        ctx.listener = SearchListener.NONE;   // don't keep a panel alive through the pool
+        ctx.unlimited();
+        if (idleCount.incrementAndGet() <= maxIdle) idle.offer(ctx);
+        else idleCount.decrementAndGet();
+    }
+}
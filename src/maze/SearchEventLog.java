@@ -0,0 +1,95 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Append-only log of search / generation events (cell id + event type), written at full speed
+ * and replayed later by a Playback at whatever rate the user picks.
+ *
+ * Events live in fixed-size chunks of primitive arrays, so appending never copies old events and
+ * costs no allocation except one new chunk every 64K events. There is one writer thread; any
+ * number of readers may read events below size() while it is still writing (size is published
+ * with a volatile write after the event itself).
+ */
+public class SearchEventLog implements SearchListener {
+
+    public static final byte FRONTIER = 0;
+    public static final byte VISIT = 1;
+    public static final byte PATH = 2;
+    public static final byte CARVE = 3;   // generator opened a wall cell
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+
+    /** True for generator logs: every cell starts as a wall and CARVE events open them. */
+    public final boolean carving;
+
+    private volatile int[][] cells = new int[8][];
+    private volatile byte[][] types = new byte[8][];
+    private volatile long size;
+    private volatile boolean finished;
+    private volatile DistanceField heatmap;
+
+    private long count;   // writer's copy of size
+
+    public SearchEventLog() {
+        this(false);
+    }
+
+    public SearchEventLog(boolean carving) {
+        this.carving = carving;
+    }
+
+    public void append(int cell, byte type) {
+        int c = (int) (count >>> CHUNK_BITS);
+        int i = (int) count & (CHUNK - 1);
+        if (i == 0) addChunk(c);
+        cells[c][i] = cell;
+        types[c][i] = type;
+        size = ++count;
+    }
+
+    private void addChunk(int c) {
+        int[][] cs = cells;
+        byte[][] ts = types;
+        if (c == cs.length) {
+            cs = Arrays.copyOf(cs, c * 2);
+            ts = Arrays.copyOf(ts, c * 2);
+        }
+        cs[c] = new int[CHUNK];
+        ts[c] = new byte[CHUNK];
+        types = ts;
+        cells = cs;
+    }
+
+    /** Marks the log complete; a Playback stops once it has replayed everything. */
+    public void finish() {
+        finished = true;
+    }
+
+    public boolean finished() { return finished; }
+
+    public long size() { return size; }
+
+    public int cell(long i) {
+        return cells[(int) (i >>> CHUNK_BITS)][(int) i & (CHUNK - 1)];
+    }
+
+    public byte type(long i) {
+        return types[(int) (i >>> CHUNK_BITS)][(int) i & (CHUNK - 1)];
+    }
+
+    public DistanceField heatmap() { return heatmap; }
+
+    @Override
+    public void onFrontier(int cell) { append(cell, FRONTIER); }
+
+    @Override
+    public void onVisit(int cell) { append(cell, VISIT); }
+
+    @Override
+    public void onPath(int cell) { append(cell, PATH); }
+
+    @Override
+    public void onHeatmap(DistanceField heatmap) { this.heatmap = heatmap; }
+}
@@ -0,0 +1,26 @@
+package maze;
+
+/**
+ * Receives search events from a solver. Cells are flat maze ids.
+ * Solvers never touch Swing directly; the UI records a SearchEventLog and replays it.
+ * NONE does nothing, so headless runs pay nothing for the hooks once the JIT inlines them.
+ */
+public interface SearchListener {
+
+    SearchListener NONE = new SearchListener() {};
+
+    // cell added to the frontier / explored set
+    default void onFrontier(int cell) {}
+
+    // cell expanded (greedy-style solvers report where they currently stand)
+    default void onVisit(int cell) {}
+
+    // cell marked as part of the final path
+    default void onPath(int cell) {}
+
+    // anytime solvers: a better path start->goal, proven at most bound times longer than the shortest
+    default void onSolution(int[] path, double bound) {}
+
+    // scoring field the solver steers by (GreedyBFSFallback's distance-to-goal)
+    default void onHeatmap(DistanceField heatmap) {}
+}
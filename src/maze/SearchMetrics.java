@@ -0,0 +1,125 @@
+package maze;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Metrics for one solver run. Build one with run(), which times the solver, reads the
+ * context's run counters and the thread's allocation counter, and also commits a
+ * SolverRunEvent when Flight Recorder is recording.
+ *
+ * allocatedBytes covers the calling thread only (ParallelBFS workers are not included) and is
+ * -1 where the JVM cannot measure it. pathLength counts cells, start and goal included; -1
+ * without a path.
+ *
+ * expanded/generated only cover the search itself. precomputed is the size of the preprocessing
+ * the run stood on (GREEDY_HEATMAP's distance-field flood, JUNCTION_GRAPH's graph build), counted
+ * whether it was built for this run or reused from the maze's cache; compare expanded + precomputed
+ * when weighing those solvers against plain searches. The rescue fields are only non-zero for
+ * the greedy solvers, in practice GREEDY_MANHATTAN (the exact heatmap never gets stuck).
+ */
+public final class SearchMetrics {
+
+    public final String solver;
+    public final SearchResult result;
+    public final SearchResult.Status status;
+    public final int expanded;
+    public final int generated;
+    public final int precomputed;
+    public final int peakFrontier;
+    public final int pathLength;
+    public final long nanos;
+    public final long allocatedBytes;
+    public final int rescues;
+    public final int rescueExpanded;
+    public final int maxRescue;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private SearchMetrics(String solver, SearchResult result, SearchContext ctx, long nanos, long allocatedBytes) {
+        this.solver = solver;
+        this.result = result;
+        this.status = result.status;
+        this.expanded = result.expanded;
+        this.generated = ctx.generated;
+        this.precomputed = ctx.precomputed;
+        this.peakFrontier = ctx.peakFrontier;
+        this.pathLength = result.found() ? result.path.length : -1;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+        this.rescues = ctx.rescues;
+        this.rescueExpanded = ctx.rescueExpanded;
+        this.maxRescue = ctx.maxRescue;
+    }
+
+    public static SearchMetrics run(SearchType type, Maze maze, SearchContext ctx) {
+        Solver solver = Solver.of(type);
+        if (solver == null) throw new IllegalArgumentException("no solver for " + type);
+        return run(type.name(), solver, maze, ctx);
+    }
+
+    /** Runs solver on ctx's query; name labels the record and the JFR event. */
+    public static SearchMetrics run(String name, Solver solver, Maze maze, SearchContext ctx) {
+        SolverRunEvent event = new SolverRunEvent();
+        ctx.resetCounters();   // a solver that never starts a search (cache hit) reports zeros
+        long bytes0 = allocatedBytes();
+        event.begin();
+        long t0 = System.nanoTime();
+        SearchResult result = solver.solve(maze, ctx);
+        long nanos = System.nanoTime() - t0;
+        event.end();
+        long bytes1 = allocatedBytes();
+
+        SearchMetrics m = new SearchMetrics(name, result, ctx, nanos, bytes0 < 0 ? -1 : bytes1 - bytes0);
+        if (event.shouldCommit()) {
+            event.solver = name;
+            event.status = m.status.name();
+            event.cells = maze.size();
+            event.expanded = m.expanded;
+            event.generated = m.generated;
+            event.precomputed = m.precomputed;
+            event.peakFrontier = m.peakFrontier;
+            event.pathLength = m.pathLength;
+            event.allocatedBytes = m.allocatedBytes;
+            event.rescues = m.rescues;
+            event.rescueExpanded = m.rescueExpanded;
+            event.maxRescue = m.maxRescue;
+            event.commit();
+        }
+        return m;
+    }
+
+    // bytes allocated so far by the current thread, -1 if unsupported or disabled
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+        try {
+            if (!sun.isThreadAllocatedMemorySupported()) return null;
+            if (!sun.isThreadAllocatedMemoryEnabled()) sun.setThreadAllocatedMemoryEnabled(true);
+            return sun;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append(solver).append(": ").append(status.name().toLowerCase())
+                .append(", expanded ").append(expanded)
+                .append(", generated ").append(generated)
+                .append(precomputed > 0 ? ", precomputed " + precomputed : "")
+                .append(", peak frontier ").append(peakFrontier);
+        if (pathLength >= 0) sb.append(", path ").append(pathLength);
+        sb.append(String.format(", %.3f ms", nanos / 1e6));
+        if (allocatedBytes >= 0) sb.append(", ").append(allocatedBytes).append(" B allocated");
+        if (rescues > 0) sb.append(", rescues ").append(rescues).append(" (")
+                .append(rescueExpanded).append(" cells, max ").append(maxRescue).append(')');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package maze;
+
+/**
+ * Outcome of one solver run.
+ * path holds cell ids start->goal, or null when no path was found.
+ * A run stopped by its SearchContext limits has no path, but expanded still says how far it got;
+ * an anytime solver (AnytimeAStar) may return its best path so far with the stop status instead.
+ */
+public class SearchResult {
+
+    public enum Status { FOUND, NOT_FOUND, BUDGET_EXHAUSTED, CANCELLED }
+
+    public final int[] path;
+    public final int expanded;   // cells taken off the frontier / stepped on
+    public final Status status;
+
+    public SearchResult(int[] path, int expanded) {
+        this(path, expanded, path != null ? Status.FOUND : Status.NOT_FOUND);
+    }
+
+    public SearchResult(int[] path, int expanded, Status status) {
+        this.path = path;
+        this.expanded = expanded;
+        this.status = status;
+    }
+
+    public boolean found() {
+        return path != null;
+    }
+
+    // true if the search ran to completion, so a missing path really means there is none
+    public boolean complete() {
+        return status == Status.FOUND || status == Status.NOT_FOUND;
+    }
+
+    /**
+     * Walks parent pointers (-1 at the root) back from goal, reporting each cell
+     * to the listener goal->start, and returns the path start->goal.
+     */
+    static int[] tracePath(int[] parent, int goal, SearchListener listener) {
+        IntList path = new IntList();
+        for (int cur = goal; cur != -1; cur = parent[cur]) {
+            listener.onPath(cur);
+            path.add(cur);
+        }
+        path.reverse();
+        return path.toArray();
+    }
+
+    @Override
+    public String toString() {
+        if (found() && !complete())
+            return "path length " + path.length + " (" + status.name().toLowerCase().replace('_', ' ')
+                    + " before optimal), expanded " + expanded;
+        if (found()) return "path length " + path.length + ", expanded " + expanded;
+        if (status == Status.NOT_FOUND) return "no path, expanded " + expanded;
+        return status.name().toLowerCase().replace('_', ' ') + " after " + expanded + " expanded";
+    }
+}
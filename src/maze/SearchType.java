@@ -2,8 +2,15 @@ package maze;
 
 public enum SearchType {
     BFS,
+    BIDIRECTIONAL_BFS,
+    PARALLEL_BFS,
     DFS,
     ASTAR,
+    ANYTIME_ASTAR,
+    JPS,
+    JUNCTION_GRAPH,
+    DSTAR_LITE,
     EXPERIMENTAL_OPTIMISTIC,
-    GREEDY_HEATMAP
+    GREEDY_HEATMAP,
+    GREEDY_MANHATTAN
 }
@@ -0,0 +1,39 @@
+package maze;
+
+/**
+ * Headless solver entry point. Runs at full speed unless the listener slows it down.
+ * All per-query state lives in the SearchContext, so one Maze can be searched from many threads.
+ */
+@FunctionalInterface
+public interface Solver {
+
+    SearchResult solve(Maze maze, SearchContext ctx);
+
+    // one-off query from maze.start to maze.goal with a fresh context
+    default SearchResult solve(Maze maze, SearchListener listener) {
+        return solve(maze, new SearchContext(maze.start, maze.goal, listener));
+    }
+
+    default SearchResult solve(Maze maze) {
+        return solve(maze, SearchListener.NONE);
+    }
+
+    // solver for a SearchType, or null if that type isn't implemented yet
+    static Solver of(SearchType type) {
+        switch (type) {
+            case BFS: return BFS::search;
+            case BIDIRECTIONAL_BFS: return BidirectionalBFS::search;
+            case PARALLEL_BFS: return ParallelBFS::search;
+            case DFS: return DFS::search;
+            case ASTAR: return AStar::search;
+            case ANYTIME_ASTAR: return AnytimeAStar::search;
+            case JPS: return JumpPointSearch::search;
+            case JUNCTION_GRAPH: return JunctionGraph::search;
+            case DSTAR_LITE: return DStarLite::search;
+            case EXPERIMENTAL_OPTIMISTIC: return Optimistic::search;
+            case GREEDY_HEATMAP: return GreedyBFSFallback::run;
+            case GREEDY_MANHATTAN: return (m, c) -> GreedyBFSFallback.run(m, c, GreedyBFSFallback.Heatmap.MANHATTAN);
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package maze;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless batch runner: generates (or loads) mazes, runs a set of solvers on each and streams one
+ * line of SearchMetrics per run as CSV or JSON Lines.
+ *
+ * Mazes and jobs are produced lazily and fed through a BatchSolver, so only the jobs in flight,
+ * the mazes they point at and what those mazes cache (distance fields, junction graph) are held
+ * in memory; lines are written in completion order as they arrive. A warm-up phase runs every
+ * solver on the first maze first and discards the results so the measured runs are JIT-compiled.
+ *
+ * Exits 0 only if every expected run produced a result line without an error; failed runs are
+ * still written (status ERROR), and a sweep that ends early reports how many runs are missing.
+ *
+ * java -cp bin App --size 501,1001 --seeds 1-20 --solvers BFS,ASTAR,JPS --threads 8 --format jsonl
+ */
+public class SolverCli {
+
+    private static final String USAGE = String.join("\n",
+            "usage: App [options]",
+            "  --size N[,N...]        square maze sizes to generate; RxC also accepted (default 101)",
+            "  --seeds A-B | A,B,...  generator seeds, one maze per size and seed (default 1)",
+            "  --extra F              fraction of extra openings knocked into each maze (default 0)",
+            "  --generator G          dfs, fast or parallel (default fast)",
+            "  --load FILE[,FILE...]  run on maze files (MazeFile) instead of generating",
+            "  --solvers S[,S...]     SearchType names, or all (default all)",
+            "  --queries N            random start/goal pairs per maze; 0 = the maze's own (default 0)",
+            "  --threads N            worker threads (default: available processors)",
+            "  --warmup N             warm-up passes over every solver on the first maze (default 5)",
+            "  --timeout MS           per-run wall-clock limit",
+            "  --max-expanded N       per-run expansion limit",
+            "  --format csv|jsonl     output format (default csv)",
+            "  --out FILE             write to FILE instead of stdout");
+
+    private static final String[] COLUMNS = {
+            "maze", "rows", "cols", "seed", "query", "start", "goal", "solver", "status",
+            "expanded", "generated", "precomputed", "peak_frontier", "path_length", "nanos", "allocated_bytes",
+            "rescues", "rescue_expanded", "max_rescue", "error"};
+
+    private static final long FLUSH_NANOS = 250_000_000L;
+
+    // one measured run, with enough context to label its output line
+    private static final class Run extends BatchSolver.Job {
+        final String label;
+        final int query;
+
+        Run(Maze maze, String label, int query, int start, int goal, SearchType type) {
+            super(maze, start, goal, type);
+            this.label = label;
+            this.query = query;
+        }
+    }
+
+    private final List<int[]> sizes = new ArrayList<>();   // {rows, cols}
+    private final List<Long> seeds = new ArrayList<>();
+    private final List<Path> files = new ArrayList<>();
+    private final List<SearchType> solvers = new ArrayList<>();
+    private double extra;
+    private String generator = "fast";
+    private int queries;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int warmup = 5;
+    private long timeoutMillis = Long.MAX_VALUE;
+    private int maxExpanded = Integer.MAX_VALUE;
+    private boolean jsonl;
+    private Path out;
+    private long errors;   // outcomes that carried an exception or error
+
+    public static void main(String[] args) {
+        SolverCli cli = new SolverCli();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            System.exit(cli.run());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("error: " + e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(130);
+        }
+    }
+
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String opt = args[i];
+            if (opt.equals("-h") || opt.equals("--help")) throw new IllegalArgumentException("");
+            if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + opt);
+            String v = args[++i];
+            try {
+                switch (opt) {
+                    case "--size":
+                        for (String s : v.split(",")) sizes.add(parseSize(s));
+                        break;
+                    case "--seeds":
+                        parseSeeds(v);
+                        break;
+                    case "--extra":
+                        extra = Double.parseDouble(v);
+                        break;
+                    case "--generator":
+                        if (!v.equals("dfs") && !v.equals("fast") && !v.equals("parallel"))
+                            throw new IllegalArgumentException("unknown generator " + v);
+                        generator = v;
+                        break;
+                    case "--load":
+                        for (String s : v.split(",")) {
+                            Path p = Paths.get(s);
+                            if (!Files.isReadable(p)) throw new IllegalArgumentException("cannot read " + s);
+                            files.add(p);
+                        }
+                        break;
+                    case "--solvers":
+                        for (String s : v.split(",")) {
+                            if (s.equalsIgnoreCase("all")) solvers.addAll(Arrays.asList(SearchType.values()));
+                            else solvers.add(SearchType.valueOf(s.trim().toUpperCase()));
+                        }
+                        break;
+                    case "--queries":
+                        queries = Integer.parseInt(v);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(v);
+                        break;
+                    case "--warmup":
+                        warmup = Integer.parseInt(v);
+                        break;
+                    case "--timeout":
+                        timeoutMillis = Long.parseLong(v);
+                        break;
+                    case "--max-expanded":
+                        maxExpanded = Integer.parseInt(v);
+                        break;
+                    case "--format":
+                        if (!v.equals("csv") && !v.equals("jsonl")) throw new IllegalArgumentException("unknown format " + v);
+                        jsonl = v.equals("jsonl");
+                        break;
+                    case "--out":
+                        out = Paths.get(v);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + opt);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad value for " + opt + ": " + v);
+            }
+        }
+        if (sizes.isEmpty()) sizes.add(new int[]{101, 101});
+        if (seeds.isEmpty()) seeds.add(1L);
+        if (solvers.isEmpty()) solvers.addAll(Arrays.asList(SearchType.values()));
+        if (threads < 1) throw new IllegalArgumentException("--threads must be at least 1");
+        if (queries < 0 || warmup < 0) throw new IllegalArgumentException("--queries and --warmup must be >= 0");
+    }
+
+    private static int[] parseSize(String s) {
+        int x = s.indexOf('x');
+        int rows = Integer.parseInt(x < 0 ? s : s.substring(0, x));
+        int cols = x < 0 ? rows : Integer.parseInt(s.substring(x + 1));
+        // below 7 the goal quadrant has no open cell to place the goal on
+        if (rows < 7 || cols < 7) throw new IllegalArgumentException("maze size must be at least 7: " + s);
+        return new int[]{rows, cols};
+    }
+
+    private void parseSeeds(String v) {
+        for (String s : v.split(",")) {
+            int dash = s.indexOf('-', 1);
+            if (dash < 0) {
+                seeds.add(Long.parseLong(s));
+            } else {
+                long from = Long.parseLong(s.substring(0, dash)), to = Long.parseLong(s.substring(dash + 1));
+                for (long seed = from; seed <= to; seed++) seeds.add(seed);
+            }
+        }
+    }
+
+    // exit status: 0 if every expected run came back without an error, else 1
+    int run() throws IOException, InterruptedException {
+        try (Writer w = out != null
+                     ? Files.newBufferedWriter(out, StandardCharsets.UTF_8)
+                     : new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16);
+             BatchSolver batch = new BatchSolver(threads, 64 * threads)) {
+
+            batch.limits(timeoutMillis, TimeUnit.MILLISECONDS, maxExpanded);
+
+            Iterator<Run> runs = runs();
+            if (!runs.hasNext()) return 0;
+            Run first = runs.next();
+            if (warmup > 0) {
+                long t0 = System.nanoTime();
+                long n = drain(batch.start(warmupRuns(first.maze)), null);
+                System.err.printf("warm-up: %d runs in %.1f s%n", n, (System.nanoTime() - t0) / 1e9);
+            }
+
+            if (!jsonl) w.write(String.join(",", COLUMNS) + "\n");
+            long t0 = System.nanoTime();
+            errors = 0;
+            BatchSolver.Batch measured = batch.start(new Iterator<BatchSolver.Job>() {
+                Run pending = first;
+
+                @Override
+                public boolean hasNext() { return pending != null || runs.hasNext(); }
+
+                @Override
+                public BatchSolver.Job next() {
+                    if (pending == null) return runs.next();
+                    Run r = pending;
+                    pending = null;
+                    return r;
+                }
+            });
+            long n = drain(measured, w);
+            w.flush();
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.err.printf("%d runs in %.1f s (%.0f runs/s)%n", n, secs, n / secs);
+
+            long expected = expectedRuns();
+            int status = 0;
+            if (measured.feedError() != null) {
+                System.err.println("error: sweep stopped early: " + measured.feedError());
+                status = 1;
+            }
+            if (n != expected) {
+                System.err.printf("error: %d of %d runs missing%n", expected - n, expected);
+                status = 1;
+            }
+            if (errors > 0) {
+                System.err.printf("error: %d runs failed (status ERROR)%n", errors);
+                status = 1;
+            }
+            return status;
+        }
+    }
+
+    private long expectedRuns() {
+        long mazes = files.isEmpty() ? (long) sizes.size() * seeds.size() : files.size();
+        return mazes * Math.max(1, queries) * solvers.size();
+    }
+
+    // takes every outcome of a batch, writing a line per outcome when w is non-null
+    private long drain(BatchSolver.Batch b, Writer w) throws IOException, InterruptedException {
+        long n = 0;
+        long lastFlush = System.nanoTime();
+        StringBuilder line = new StringBuilder(256);
+        for (BatchSolver.Outcome o; (o = b.next()) != null; n++) {
+            if (o.error != null) errors++;
+            if (w == null) continue;
+            line.setLength(0);
+            if (jsonl) json(line, o);
+            else csv(line, o);
+            w.append(line);
+            // stream: push lines out regularly even when the buffer isn't full
+            long now = System.nanoTime();
+            if (now - lastFlush > FLUSH_NANOS) {
+                w.flush();
+                lastFlush = now;
+            }
+        }
+        return n;
+    }
+
+    private Iterator<BatchSolver.Job> warmupRuns(Maze maze) {
+        List<BatchSolver.Job> jobs = new ArrayList<>();
+        for (int pass = 0; pass < warmup; pass++) {
+            for (SearchType type : solvers) jobs.add(new BatchSolver.Job(maze, maze.start, maze.goal, type));
+        }
+        return jobs.iterator();
+    }
+
+    // every (maze, query, solver) combination, building each maze only when its first run is due
+    private Iterator<Run> runs() {
+        return new Iterator<Run>() {
+            int mazeIndex = -1;
+            Maze maze;
+            String label;
+            int[] starts = new int[0], goals = new int[0];
+            int query, solver = solvers.size();
+
+            @Override
+            public boolean hasNext() {
+                while (solver == solvers.size() && (query + 1 >= starts.length)) {
+                    if (!nextMaze()) return false;
+                }
+                return true;
+            }
+
+            @Override
+            public Run next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                if (solver == solvers.size()) {
+                    solver = 0;
+                    query++;
+                }
+                return new Run(maze, label, query, starts[query], goals[query], solvers.get(solver++));
+            }
+
+            private boolean nextMaze() {
+                mazeIndex++;
+                int total = files.isEmpty() ? sizes.size() * seeds.size() : files.size();
+                if (mazeIndex >= total) return false;
+                if (!files.isEmpty()) {
+                    Path p = files.get(mazeIndex);
+                    try {
+                        maze = MazeFile.open(p);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    label = p.toString();
+                } else {
+                    int[] size = sizes.get(mazeIndex / seeds.size());
+                    long seed = seeds.get(mazeIndex % seeds.size());
+                    maze = generate(size[0], size[1], seed);
+                    label = size[0] + "x" + size[1];
+                }
+                pickQueries();
+                query = -1;
+                solver = solvers.size();
+                return true;
+            }
+
+            private void pickQueries() {
+                if (queries == 0) {
+                    starts = new int[]{maze.start};
+                    goals = new int[]{maze.goal};
+                    return;
+                }
+                starts = new int[queries];
+                goals = new int[queries];
+                Random rng = new Random(maze.seed * 31 + mazeIndex);
+                for (int q = 0; q < queries; q++) {
+                    starts[q] = randomOpenCell(maze, rng);
+                    goals[q] = randomOpenCell(maze, rng);
+                }
+            }
+        };
+    }
+
+    private Maze generate(int rows, int cols, long seed) {
+        Maze maze = new Maze(rows, cols);
+        switch (generator) {
+            case "dfs": maze.generate(seed, extra); break;
+            case "parallel": maze.generateParallel(seed, extra); break;
+            default: maze.generateFast(seed, extra); break;
+        }
+        return maze;
+    }
+
+    private static int randomOpenCell(Maze maze, Random rng) {
+        while (true) {
+            int id = rng.nextInt(maze.size());
+            if (!maze.isWall(id)) return id;
+        }
+    }
+
+    private static void csv(StringBuilder sb, BatchSolver.Outcome o) {
+        Run r = (Run) o.job;
+        SearchMetrics m = o.metrics;
+        csvText(sb, r.label).append(',')
+                .append(r.maze.rows).append(',').append(r.maze.cols).append(',').append(r.maze.seed).append(',')
+                .append(r.query).append(',').append(r.start).append(',').append(r.goal).append(',')
+                .append(r.type.name()).append(',');
+        if (m != null) {
+            sb.append(m.status.name()).append(',')
+                    .append(m.expanded).append(',').append(m.generated).append(',').append(m.precomputed).append(',')
+                    .append(m.peakFrontier).append(',').append(m.pathLength).append(',')
+                    .append(m.nanos).append(',').append(m.allocatedBytes).append(',')
+                    .append(m.rescues).append(',').append(m.rescueExpanded).append(',').append(m.maxRescue)
+                    .append(",\n");
+        } else {
+            sb.append("ERROR,,,,,,").append(o.nanos).append(",,,,,");
+            csvText(sb, String.valueOf(o.error)).append('\n');
+        }
+    }
+
+    private static StringBuilder csvText(StringBuilder sb, String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return sb.append(s);
+        return sb.append('"').append(s.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void json(StringBuilder sb, BatchSolver.Outcome o) {
+        Run r = (Run) o.job;
+        SearchMetrics m = o.metrics;
+        sb.append("{\"maze\":");
+        jsonText(sb, r.label);
+        sb.append(",\"rows\":").append(r.maze.rows).append(",\"cols\":").append(r.maze.cols)
+                .append(",\"seed\":").append(r.maze.seed).append(",\"query\":").append(r.query)
+                .append(",\"start\":").append(r.start).append(",\"goal\":").append(r.goal)
+                .append(",\"solver\":\"").append(r.type.name()).append('"');
+        if (m != null) {
+            sb.append(",\"status\":\"").append(m.status.name()).append('"')
+                    .append(",\"expanded\":").append(m.expanded)
+                    .append(",\"generated\":").append(m.generated)
+                    .append(",\"precomputed\":").append(m.precomputed)
+                    .append(",\"peak_frontier\":").append(m.peakFrontier)
+                    .append(",\"path_length\":").append(m.pathLength)
+                    .append(",\"nanos\":").append(m.nanos)
+                    .append(",\"allocated_bytes\":").append(m.allocatedBytes)
+                    .append(",\"rescues\":").append(m.rescues)
+                    .append(",\"rescue_expanded\":").append(m.rescueExpanded)
+                    .append(",\"max_rescue\":").append(m.maxRescue);
+        } else {
+            sb.append(",\"status\":\"ERROR\",\"nanos\":").append(o.nanos).append(",\"error\":");
+            jsonText(sb, String.valueOf(o.error));
+        }
+        sb.append("}\n");
+    }
+
+    private static void jsonText(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,54 @@
+package maze;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event for one solver run, committed by SearchMetrics.run.
+ * Carries the same numbers as the SearchMetrics record; the event's own duration is the run time.
+ * Enabled in the default and profile settings, so a plain -XX:StartFlightRecording picks it up.
+ */
+@Name("maze.SolverRun")
+@Label("Solver Run")
+@Category({"Maze", "Solver"})
+@Description("One maze search: status, work done and memory allocated")
+@StackTrace(false)
+final class SolverRunEvent extends Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Status")
+    String status;
+
+    @Label("Cells")
+    int cells;
+
+    @Label("Expanded")
+    int expanded;
+
+    @Label("Generated")
+    int generated;
+
+    @Label("Precomputed")
+    @Description("Cells covered by preprocessing the run relied on (distance field, junction graph)")
+    int precomputed;
+
+    @Label("Peak Frontier")
+    int peakFrontier;
+
+    @Label("Path Length")
+    int pathLength;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Rescues")
+    int rescues;
+
+    @Label("Rescue Expanded")
+    int rescueExpanded;
+
+    @Label("Largest Rescue")
+    int maxRescue;
+}